@@ -22,6 +22,7 @@ package com.esotericsoftware.kryo.benchmarks;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.SerializerFactory.CompatibleFieldSerializerFactory;
+import com.esotericsoftware.kryo.SerializerFactory.GeneratedFieldSerializerFactory;
 import com.esotericsoftware.kryo.SerializerFactory.TaggedFieldSerializerFactory;
 import com.esotericsoftware.kryo.benchmarks.data.Image;
 import com.esotericsoftware.kryo.benchmarks.data.Image.Size;
@@ -38,6 +39,7 @@ import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
 import java.util.ArrayList;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
@@ -50,6 +52,38 @@ public class FieldSerializerBenchmark {
 		state.roundTrip();
 	}
 
+	@Benchmark
+	public void generated (GeneratedState state) {
+		state.roundTrip();
+	}
+
+	/** Field access using Unsafe, the default. */
+	@Benchmark
+	public void unsafeField (FieldAccessState state) {
+		state.roundTrip();
+	}
+
+	/** Field access using ReflectASM, used for public classes when Unsafe is disabled. */
+	@Benchmark
+	@Fork(jvmArgsAppend = "-Dkryo.unsafe=false")
+	public void asmField (FieldAccessState state) {
+		state.roundTrip();
+	}
+
+	/** Field access using VarHandles, used for non-public classes when Unsafe is disabled. */
+	@Benchmark
+	@Fork(jvmArgsAppend = "-Dkryo.unsafe=false")
+	public void varHandleField (NonPublicFieldAccessState state) {
+		state.roundTrip();
+	}
+
+	/** Field access using reflection, used for non-public classes when Unsafe and VarHandles are disabled. */
+	@Benchmark
+	@Fork(jvmArgsAppend = {"-Dkryo.unsafe=false", "-Dkryo.varHandles=false"})
+	public void reflectField (NonPublicFieldAccessState state) {
+		state.roundTrip();
+	}
+
 	@Benchmark
 	public void compatible (CompatibleState state) {
 		state.roundTrip();
@@ -131,6 +165,59 @@ public class FieldSerializerBenchmark {
 		}
 	}
 
+	@State(Scope.Thread)
+	static public class FieldAccessState {
+		@Param({"true", "false"}) public boolean references;
+
+		final Kryo kryo = new Kryo();
+		final Output output = new Output(1024 * 512);
+		final Input input = new Input(output.getBuffer());
+		Object object;
+
+		@Setup(Level.Trial)
+		public void setup () {
+			object = newSample().populate(references);
+			kryo.register(double[].class);
+			kryo.register(int[].class);
+			kryo.register(long[].class);
+			kryo.register(float[].class);
+			kryo.register(short[].class);
+			kryo.register(char[].class);
+			kryo.register(boolean[].class);
+			kryo.register(object.getClass(), new FieldSerializer(kryo, object.getClass()));
+			kryo.setReferences(references);
+		}
+
+		Sample newSample () {
+			return new Sample();
+		}
+
+		public void roundTrip () {
+			output.setPosition(0);
+			kryo.writeObject(output, object);
+			input.setPosition(0);
+			input.setLimit(output.position());
+			kryo.readObject(input, object.getClass());
+		}
+	}
+
+	static public class NonPublicFieldAccessState extends FieldAccessState {
+		Sample newSample () {
+			return new NonPublicSample();
+		}
+	}
+
+	/** ReflectASM is not used for the fields of a non-public class. */
+	static class NonPublicSample extends Sample {
+	}
+
+	static public class GeneratedState extends BenchmarkState {
+		public void setup () {
+			kryo.setDefaultSerializer(new GeneratedFieldSerializerFactory());
+			super.setup();
+		}
+	}
+
 	static public class CompatibleState extends BenchmarkState {
 		@Param({"true", "false"}) public boolean chunked;
 
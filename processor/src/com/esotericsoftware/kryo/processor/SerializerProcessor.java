@@ -0,0 +1,587 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.tools.Diagnostic.Kind;
+
+/** Generates a serializer for each class annotated with {@link GenerateSerializer}. The generated serializer writes the fields in
+ * the same order and with the same encodings as {@code FieldSerializer} with the default {@code FieldSerializerConfig}, so data
+ * written by one can be read by the other. Fields are accessed directly and instances are created with the no-arg constructor.
+ * <p>
+ * For each package a {@code GeneratedSerializers} class is generated with an {@code addDefaultSerializers(Kryo)} method, which
+ * adds the generated serializers as default serializers, and a {@code register(Kryo)} method, which registers the annotated
+ * classes with the generated serializers in class name order. */
+@SupportedAnnotationTypes("com.esotericsoftware.kryo.processor.GenerateSerializer")
+public class SerializerProcessor extends AbstractProcessor {
+	static private final String notNull = "com.esotericsoftware.kryo.serializers.FieldSerializer.NotNull";
+	static private final String[] unsupportedAnnotations = {"com.esotericsoftware.kryo.serializers.FieldSerializer.Bind",
+		"com.esotericsoftware.kryo.serializers.FieldSerializer.Optional",
+		"com.esotericsoftware.kryo.serializers.FieldSerializer.Optionals",
+		"com.esotericsoftware.kryo.serializers.CollectionSerializer.BindCollection",
+		"com.esotericsoftware.kryo.serializers.MapSerializer.BindMap"};
+
+	private final Set<String> writtenPackages = new HashSet();
+
+	public SourceVersion getSupportedSourceVersion () {
+		return SourceVersion.latestSupported();
+	}
+
+	public boolean process (Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Map<String, List<TypeElement>> packages = new TreeMap();
+		for (Element element : roundEnv.getElementsAnnotatedWith(GenerateSerializer.class)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				error("@GenerateSerializer can only be used on classes.", element);
+				continue;
+			}
+			TypeElement type = (TypeElement)element;
+			if (!checkType(type)) continue;
+			List<FieldInfo> fields = collectFields(type);
+			if (fields == null) continue;
+			writeSerializer(type, fields);
+			packages.computeIfAbsent(packageName(type), key -> new ArrayList()).add(type);
+		}
+		for (Map.Entry<String, List<TypeElement>> entry : packages.entrySet())
+			writeConfigurer(entry.getKey(), entry.getValue());
+		return true;
+	}
+
+	private boolean checkType (TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			error("@GenerateSerializer cannot be used on an abstract class.", type);
+			return false;
+		}
+		if (!type.getTypeParameters().isEmpty()) {
+			error("@GenerateSerializer cannot be used on a generic class.", type);
+			return false;
+		}
+		for (Element next = type; next instanceof TypeElement; next = next.getEnclosingElement()) {
+			TypeElement nextType = (TypeElement)next;
+			if (nextType.getModifiers().contains(Modifier.PRIVATE)) {
+				error("@GenerateSerializer cannot be used on a private class.", type);
+				return false;
+			}
+			NestingKind nesting = nextType.getNestingKind();
+			if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS
+				|| (nesting == NestingKind.MEMBER && !nextType.getModifiers().contains(Modifier.STATIC))) {
+				error("@GenerateSerializer cannot be used on a local, anonymous, or non-static inner class.", type);
+				return false;
+			}
+		}
+		boolean hasConstructor = false, hasNoArgConstructor = false;
+		for (Element member : type.getEnclosedElements()) {
+			if (member.getKind() != ElementKind.CONSTRUCTOR) continue;
+			hasConstructor = true;
+			ExecutableElement constructor = (ExecutableElement)member;
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE))
+				hasNoArgConstructor = true;
+		}
+		if (hasConstructor && !hasNoArgConstructor) {
+			error("@GenerateSerializer requires a non-private no-arg constructor.", type);
+			return false;
+		}
+		return true;
+	}
+
+	/** Returns the serialized fields of the class and its superclasses in the order used by {@code FieldSerializer}, or null if
+	 * there was an error. */
+	private List<FieldInfo> collectFields (TypeElement type) {
+		String packageName = packageName(type);
+		TreeMap<String, FieldInfo> fields = new TreeMap();
+		boolean valid = true;
+		for (TypeElement next = type; next != null; next = superclass(next)) {
+			if (next.getQualifiedName().contentEquals("java.lang.Object")) break;
+			for (Element member : next.getEnclosedElements()) {
+				if (member.getKind() != ElementKind.FIELD) continue;
+				VariableElement field = (VariableElement)member;
+				Set<Modifier> modifiers = field.getModifiers();
+				if (modifiers.contains(Modifier.STATIC)) continue;
+				String name = field.getSimpleName().toString();
+				if (modifiers.contains(Modifier.PRIVATE)) {
+					error("Private field cannot be accessed by the generated serializer: " + name, field);
+					valid = false;
+					continue;
+				}
+				if (modifiers.contains(Modifier.FINAL)) {
+					error("Final field cannot be set by the generated serializer: " + name, field);
+					valid = false;
+					continue;
+				}
+				if (!modifiers.contains(Modifier.PUBLIC) && !packageName(next).equals(packageName)) {
+					error("Field in another package cannot be accessed by the generated serializer: " + name, type);
+					valid = false;
+					continue;
+				}
+				if (hasTypeVariable(field.asType())) {
+					error("Field with a type variable is not supported by the generated serializer: " + name, field);
+					valid = false;
+					continue;
+				}
+				boolean canBeNull = true;
+				for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+					String annotationName = ((TypeElement)annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+					if (annotationName.equals(notNull))
+						canBeNull = false;
+					else {
+						for (String unsupported : unsupportedAnnotations) {
+							if (annotationName.equals(unsupported)) {
+								error("Annotation is not supported by the generated serializer: @" + annotationName, field);
+								valid = false;
+							}
+						}
+					}
+				}
+				if (fields.containsKey(name)) {
+					error("Field name is used by more than one class in the hierarchy: " + name, type);
+					valid = false;
+					continue;
+				}
+				fields.put(name, new FieldInfo(next, field, canBeNull, modifiers.contains(Modifier.TRANSIENT)));
+			}
+		}
+		if (!valid) return null;
+		// Fields are sorted by name, as FieldSerializer does.
+		return new ArrayList(fields.values());
+	}
+
+	private TypeElement superclass (TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) return null;
+		return (TypeElement)((DeclaredType)superclass).asElement();
+	}
+
+	private boolean hasTypeVariable (TypeMirror type) {
+		switch (type.getKind()) {
+		case TYPEVAR:
+			return true;
+		case ARRAY:
+			return hasTypeVariable(((ArrayType)type).getComponentType());
+		case WILDCARD:
+			WildcardType wildcard = (WildcardType)type;
+			return (wildcard.getExtendsBound() != null && hasTypeVariable(wildcard.getExtendsBound()))
+				|| (wildcard.getSuperBound() != null && hasTypeVariable(wildcard.getSuperBound()));
+		case DECLARED:
+			for (TypeMirror argument : ((DeclaredType)type).getTypeArguments())
+				if (hasTypeVariable(argument)) return true;
+			return false;
+		default:
+			return false;
+		}
+	}
+
+	private void writeSerializer (TypeElement type, List<FieldInfo> fields) {
+		String packageName = packageName(type);
+		String typeName = type.getQualifiedName().toString();
+		String serializerName = serializerName(type);
+		boolean hasString = false;
+		for (FieldInfo field : fields)
+			if (field.isString()) hasString = true;
+
+		StringBuilder source = new StringBuilder(4096);
+		if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+		source.append("import com.esotericsoftware.kryo.Kryo;\n");
+		source.append("import com.esotericsoftware.kryo.KryoException;\n");
+		source.append("import com.esotericsoftware.kryo.Registration;\n");
+		source.append("import com.esotericsoftware.kryo.Serializer;\n");
+		source.append("import com.esotericsoftware.kryo.io.Input;\n");
+		source.append("import com.esotericsoftware.kryo.io.Output;\n");
+		source.append("import com.esotericsoftware.kryo.util.Generics;\n");
+		source.append("import com.esotericsoftware.kryo.util.Generics.GenericType;\n\n");
+		source.append("/** Serializer for {@link ").append(typeName).append("}, generated by {@code ")
+			.append(SerializerProcessor.class.getName()).append("}. */\n");
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		source.append("public final class ").append(serializerName).append(" extends Serializer<").append(typeName)
+			.append("> {\n");
+		if (hasString) source.append("\tprivate final boolean stringReferences;\n");
+		for (int i = 0, n = fields.size(); i < n; i++) {
+			FieldInfo field = fields.get(i);
+			if (field.transient_ || field.isPrimitive()) continue;
+			source.append("\tprivate final Class valueClass").append(i).append(";\n");
+			source.append("\tprivate final GenericType genericType").append(i).append(";\n");
+			source.append("\tprivate Serializer serializer").append(i).append(";\n");
+		}
+
+		// Constructor.
+		source.append("\n\tpublic ").append(serializerName).append(" (Kryo kryo) {\n");
+		if (hasString) {
+			source.append("\t\tstringReferences = kryo.getReferences() && kryo.getReferenceResolver().useReferences(String.class);\n");
+		}
+		for (int i = 0, n = fields.size(); i < n; i++) {
+			FieldInfo field = fields.get(i);
+			if (field.transient_ || field.isPrimitive()) continue;
+			String fieldType = field.typeName();
+			source.append("\t\tvalueClass").append(i).append(" = kryo.isFinal(").append(fieldType).append(".class) ? ")
+				.append(fieldType).append(".class : null;\n");
+			source.append("\t\tgenericType").append(i).append(" = new GenericType(").append(field.declaringTypeName())
+				.append(".class, ").append(typeName).append(".class, ");
+			if (field.isParameterized())
+				source.append("genericType(").append(field.declaringTypeName()).append(".class, \"").append(field.name).append("\")");
+			else
+				source.append(fieldType).append(".class");
+			source.append(");\n");
+		}
+		source.append("\t}\n");
+
+		// Write.
+		source.append("\n\tpublic void write (Kryo kryo, Output output, ").append(typeName).append(" object) {\n");
+		for (int i = 0, n = fields.size(); i < n; i++) {
+			FieldInfo field = fields.get(i);
+			if (field.transient_) continue;
+			if (field.isPrimitive())
+				source.append("\t\toutput.").append(field.writeMethod("object." + field.name)).append(";\n");
+			else
+				source.append("\t\twrite").append(i).append("(kryo, output, object);\n");
+		}
+		source.append("\t}\n");
+
+		// Read.
+		source.append("\n\tpublic ").append(typeName).append(" read (Kryo kryo, Input input, Class<? extends ").append(typeName)
+			.append("> type) {\n");
+		source.append("\t\t").append(typeName).append(" object = new ").append(typeName).append("();\n");
+		source.append("\t\tkryo.reference(object);\n");
+		for (int i = 0, n = fields.size(); i < n; i++) {
+			FieldInfo field = fields.get(i);
+			if (field.transient_) continue;
+			if (field.isPrimitive())
+				source.append("\t\tobject.").append(field.name).append(" = input.").append(field.readMethod()).append(";\n");
+			else
+				source.append("\t\tread").append(i).append("(kryo, input, object);\n");
+		}
+		source.append("\t\treturn object;\n");
+		source.append("\t}\n");
+
+		// Copy.
+		source.append("\n\tpublic ").append(typeName).append(" copy (Kryo kryo, ").append(typeName).append(" original) {\n");
+		source.append("\t\t").append(typeName).append(" copy = new ").append(typeName).append("();\n");
+		source.append("\t\tkryo.reference(copy);\n");
+		for (FieldInfo field : fields) {
+			source.append("\t\tcopy.").append(field.name).append(" = ");
+			if (field.isPrimitive() || field.isString())
+				source.append("original.").append(field.name);
+			else
+				source.append('(').append(field.typeName()).append(")kryo.copy(original.").append(field.name).append(')');
+			source.append(";\n");
+		}
+		source.append("\t\treturn copy;\n");
+		source.append("\t}\n");
+
+		// Object field methods, the same logic as ReflectField.
+		for (int i = 0, n = fields.size(); i < n; i++) {
+			FieldInfo field = fields.get(i);
+			if (field.transient_ || field.isPrimitive()) continue;
+			String trace = field.name + " (" + typeName + ")";
+
+			source.append("\n\tprivate void write").append(i).append(" (Kryo kryo, Output output, ").append(typeName)
+				.append(" object) {\n");
+			if (field.isString()) {
+				source.append("\t\tif (!stringReferences) {\n");
+				source.append("\t\t\toutput.writeString(object.").append(field.name).append(");\n");
+				source.append("\t\t\treturn;\n");
+				source.append("\t\t}\n");
+			}
+			source.append("\t\tObject value = object.").append(field.name).append(";\n");
+			source.append("\t\tGenerics generics = kryo.getGenerics();\n");
+			source.append("\t\ttry {\n");
+			source.append("\t\t\tif (valueClass").append(i).append(" == null) {\n");
+			source.append("\t\t\t\tif (value == null) {\n");
+			source.append("\t\t\t\t\tkryo.writeClass(output, null);\n");
+			source.append("\t\t\t\t\treturn;\n");
+			source.append("\t\t\t\t}\n");
+			source.append("\t\t\t\tRegistration registration = kryo.writeClass(output, value.getClass());\n");
+			source.append("\t\t\t\tgenerics.pushGenericType(genericType").append(i).append(");\n");
+			source.append("\t\t\t\tkryo.writeObject(output, value, registration.getSerializer());\n");
+			source.append("\t\t\t} else {\n");
+			source.append("\t\t\t\tif (serializer").append(i).append(" == null) serializer").append(i)
+				.append(" = kryo.getSerializer(valueClass").append(i).append(");\n");
+			source.append("\t\t\t\tgenerics.pushGenericType(genericType").append(i).append(");\n");
+			if (field.canBeNull)
+				source.append("\t\t\t\tkryo.writeObjectOrNull(output, value, serializer").append(i).append(");\n");
+			else {
+				source.append("\t\t\t\tif (value == null) {\n");
+				source.append("\t\t\t\t\tthrow new KryoException(\"Field value cannot be null when canBeNull is false: ").append(trace)
+					.append("\");\n");
+				source.append("\t\t\t\t}\n");
+				source.append("\t\t\t\tkryo.writeObject(output, value, serializer").append(i).append(");\n");
+			}
+			source.append("\t\t\t}\n");
+			appendCatch(source, trace);
+			source.append("\t}\n");
+
+			source.append("\n\tprivate void read").append(i).append(" (Kryo kryo, Input input, ").append(typeName)
+				.append(" object) {\n");
+			if (field.isString()) {
+				source.append("\t\tif (!stringReferences) {\n");
+				source.append("\t\t\tobject.").append(field.name).append(" = input.readString();\n");
+				source.append("\t\t\treturn;\n");
+				source.append("\t\t}\n");
+			}
+			source.append("\t\tGenerics generics = kryo.getGenerics();\n");
+			source.append("\t\ttry {\n");
+			source.append("\t\t\tif (valueClass").append(i).append(" == null) {\n");
+			source.append("\t\t\t\tRegistration registration = kryo.readClass(input);\n");
+			source.append("\t\t\t\tif (registration == null) {\n");
+			source.append("\t\t\t\t\tobject.").append(field.name).append(" = null;\n");
+			source.append("\t\t\t\t\treturn;\n");
+			source.append("\t\t\t\t}\n");
+			source.append("\t\t\t\tgenerics.pushGenericType(genericType").append(i).append(");\n");
+			source.append("\t\t\t\tobject.").append(field.name).append(" = (").append(field.typeName())
+				.append(")kryo.readObject(input, registration.getType(), registration.getSerializer());\n");
+			source.append("\t\t\t} else {\n");
+			source.append("\t\t\t\tif (serializer").append(i).append(" == null) serializer").append(i)
+				.append(" = kryo.getSerializer(valueClass").append(i).append(");\n");
+			source.append("\t\t\t\tgenerics.pushGenericType(genericType").append(i).append(");\n");
+			source.append("\t\t\t\tobject.").append(field.name).append(" = (").append(field.typeName()).append(")kryo.")
+				.append(field.canBeNull ? "readObjectOrNull" : "readObject").append("(input, valueClass").append(i)
+				.append(", serializer").append(i).append(");\n");
+			source.append("\t\t\t}\n");
+			appendCatch(source, trace);
+			source.append("\t}\n");
+		}
+
+		boolean parameterized = false;
+		for (FieldInfo field : fields)
+			if (!field.transient_ && field.isParameterized()) parameterized = true;
+		if (parameterized) {
+			source.append("\n\tstatic private java.lang.reflect.Type genericType (Class type, String fieldName) {\n");
+			source.append("\t\ttry {\n");
+			source.append("\t\t\treturn type.getDeclaredField(fieldName).getGenericType();\n");
+			source.append("\t\t} catch (NoSuchFieldException ex) {\n");
+			source.append("\t\t\tthrow new KryoException(ex);\n");
+			source.append("\t\t}\n");
+			source.append("\t}\n");
+		}
+		source.append("}\n");
+
+		writeSource(qualify(packageName, serializerName), source, type);
+	}
+
+	private void appendCatch (StringBuilder source, String trace) {
+		source.append("\t\t} catch (KryoException ex) {\n");
+		source.append("\t\t\tex.addTrace(\"").append(trace).append("\");\n");
+		source.append("\t\t\tthrow ex;\n");
+		source.append("\t\t} catch (RuntimeException runtimeEx) {\n");
+		source.append("\t\t\tKryoException ex = new KryoException(runtimeEx);\n");
+		source.append("\t\t\tex.addTrace(\"").append(trace).append("\");\n");
+		source.append("\t\t\tthrow ex;\n");
+		source.append("\t\t} finally {\n");
+		source.append("\t\t\tgenerics.popGenericType();\n");
+		source.append("\t\t}\n");
+	}
+
+	private void writeConfigurer (String packageName, List<TypeElement> types) {
+		if (!writtenPackages.add(packageName)) {
+			error("GeneratedSerializers was already generated for package: " + packageName, types.get(0));
+			return;
+		}
+		types.sort((a, b) -> a.getQualifiedName().toString().compareTo(b.getQualifiedName().toString()));
+
+		StringBuilder source = new StringBuilder(1024);
+		if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+		source.append("import com.esotericsoftware.kryo.Kryo;\n");
+		source.append("import com.esotericsoftware.kryo.SerializerFactory.BaseSerializerFactory;\n\n");
+		source.append("/** Configures the serializers generated by {@code ").append(SerializerProcessor.class.getName())
+			.append("} for this package. */\n");
+		source.append("public final class GeneratedSerializers {\n");
+		source.append("\tprivate GeneratedSerializers () {\n");
+		source.append("\t}\n");
+
+		source.append("\n\t/** Adds the generated serializers as default serializers. They are used only for the exact annotated class, not for\n");
+		source.append("\t * subclasses. */\n");
+		source.append("\tpublic static void addDefaultSerializers (Kryo kryo) {\n");
+		for (TypeElement type : types) {
+			String typeName = type.getQualifiedName().toString();
+			String serializerName = serializerName(type);
+			source.append("\t\tkryo.addDefaultSerializer(").append(typeName).append(".class, new BaseSerializerFactory<")
+				.append(serializerName).append(">() {\n");
+			source.append("\t\t\tpublic ").append(serializerName).append(" newSerializer (Kryo kryo, Class type) {\n");
+			source.append("\t\t\t\treturn new ").append(serializerName).append("(kryo);\n");
+			source.append("\t\t\t}\n\n");
+			source.append("\t\t\tpublic boolean isSupported (Class type) {\n");
+			source.append("\t\t\t\treturn type == ").append(typeName).append(".class;\n");
+			source.append("\t\t\t}\n");
+			source.append("\t\t});\n");
+		}
+		source.append("\t}\n");
+
+		source.append("\n\t/** Registers the annotated classes using the generated serializers, in class name order. */\n");
+		source.append("\tpublic static void register (Kryo kryo) {\n");
+		for (TypeElement type : types) {
+			source.append("\t\tkryo.register(").append(type.getQualifiedName()).append(".class, new ").append(serializerName(type))
+				.append("(kryo));\n");
+		}
+		source.append("\t}\n");
+		source.append("}\n");
+
+		writeSource(qualify(packageName, "GeneratedSerializers"), source, types.toArray(new Element[types.size()]));
+	}
+
+	private void writeSource (String name, StringBuilder source, Element... originatingElements) {
+		try (Writer writer = processingEnv.getFiler().createSourceFile(name, originatingElements).openWriter()) {
+			writer.write(source.toString());
+		} catch (IOException ex) {
+			error("Unable to write generated source: " + name + " (" + ex.getMessage() + ")", originatingElements[0]);
+		}
+	}
+
+	private String packageName (Element element) {
+		while (!(element instanceof PackageElement))
+			element = element.getEnclosingElement();
+		return ((PackageElement)element).getQualifiedName().toString();
+	}
+
+	/** Returns the simple name of the generated serializer, eg {@code Outer_Inner_KryoSerializer}. */
+	private String serializerName (TypeElement type) {
+		String name = type.getSimpleName().toString();
+		for (Element next = type.getEnclosingElement(); next instanceof TypeElement; next = next.getEnclosingElement())
+			name = next.getSimpleName() + "_" + name;
+		return name + "_KryoSerializer";
+	}
+
+	private String qualify (String packageName, String simpleName) {
+		return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+	}
+
+	private void error (String message, Element element) {
+		processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+	}
+
+	static class FieldInfo {
+		final TypeElement declaringType;
+		final String name;
+		final TypeMirror type;
+		final boolean canBeNull, transient_;
+
+		FieldInfo (TypeElement declaringType, VariableElement field, boolean canBeNull, boolean transient_) {
+			this.declaringType = declaringType;
+			name = field.getSimpleName().toString();
+			type = field.asType();
+			this.canBeNull = canBeNull;
+			this.transient_ = transient_;
+		}
+
+		boolean isPrimitive () {
+			return type.getKind().isPrimitive();
+		}
+
+		boolean isString () {
+			return typeName().equals("java.lang.String");
+		}
+
+		boolean isParameterized () {
+			TypeMirror type = this.type;
+			while (type.getKind() == TypeKind.ARRAY)
+				type = ((ArrayType)type).getComponentType();
+			return type.getKind() == TypeKind.DECLARED && !((DeclaredType)type).getTypeArguments().isEmpty();
+		}
+
+		String declaringTypeName () {
+			return declaringType.getQualifiedName().toString();
+		}
+
+		/** Returns the erased type name, usable in source. */
+		String typeName () {
+			return typeName(type);
+		}
+
+		static String typeName (TypeMirror type) {
+			switch (type.getKind()) {
+			case ARRAY:
+				return typeName(((ArrayType)type).getComponentType()) + "[]";
+			case DECLARED:
+				return ((TypeElement)((DeclaredType)type).asElement()).getQualifiedName().toString();
+			default:
+				return type.getKind().name().toLowerCase();
+			}
+		}
+
+		/** Returns the Output method call for a primitive field, using the default FieldSerializer encoding. */
+		String writeMethod (String value) {
+			switch (type.getKind()) {
+			case INT:
+				return "writeVarInt(" + value + ", false)";
+			case LONG:
+				return "writeVarLong(" + value + ", false)";
+			case FLOAT:
+				return "writeFloat(" + value + ")";
+			case DOUBLE:
+				return "writeDouble(" + value + ")";
+			case SHORT:
+				return "writeShort(" + value + ")";
+			case CHAR:
+				return "writeChar(" + value + ")";
+			case BYTE:
+				return "writeByte(" + value + ")";
+			case BOOLEAN:
+				return "writeBoolean(" + value + ")";
+			}
+			throw new IllegalStateException(type.toString());
+		}
+
+		String readMethod () {
+			switch (type.getKind()) {
+			case INT:
+				return "readVarInt(false)";
+			case LONG:
+				return "readVarLong(false)";
+			case FLOAT:
+				return "readFloat()";
+			case DOUBLE:
+				return "readDouble()";
+			case SHORT:
+				return "readShort()";
+			case CHAR:
+				return "readChar()";
+			case BYTE:
+				return "readByte()";
+			case BOOLEAN:
+				return "readBoolean()";
+			}
+			throw new IllegalStateException(type.toString());
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.processor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+class SerializerProcessorTest {
+	static private final String sample = "package sample;\n" //
+		+ "import com.esotericsoftware.kryo.processor.GenerateSerializer;\n" //
+		+ "import com.esotericsoftware.kryo.serializers.FieldSerializer.NotNull;\n" //
+		+ "import java.util.*;\n" //
+		+ "@GenerateSerializer\n" //
+		+ "public class Sample extends Base {\n" //
+		+ "	int i; long l; float f; double d; short s; char c; byte b; boolean z;\n" //
+		+ "	String string; @NotNull String notNullString; Integer boxed; int[] ints; Child[] children;\n" //
+		+ "	List<String> list; Object any; Child child; transient int skipped;\n" //
+		+ "	public static Sample create () {\n" //
+		+ "		Sample sample = new Sample();\n" //
+		+ "		sample.i = -123456; sample.l = 1L << 40; sample.f = 1.5f; sample.d = -2.25; sample.s = 300; sample.c = 'x';\n" //
+		+ "		sample.b = -7; sample.z = true; sample.notNullString = \"abc\"; sample.boxed = 42; sample.ints = new int[] {1, 2, 3};\n" //
+		+ "		sample.list = new ArrayList<>(Arrays.asList(\"a\", \"b\")); sample.any = 7; sample.child = new Child();\n" //
+		+ "		sample.child.name = \"child\"; sample.children = new Child[] {sample.child, null}; sample.skipped = 5;\n" //
+		+ "		sample.baseName = \"base\";\n" //
+		+ "		return sample;\n" //
+		+ "	}\n" //
+		+ "	public boolean equals (Object o) {\n" //
+		+ "		if (!(o instanceof Sample)) return false;\n" //
+		+ "		Sample other = (Sample)o;\n" //
+		+ "		return i == other.i && l == other.l && f == other.f && d == other.d && s == other.s && c == other.c && b == other.b\n" //
+		+ "			&& z == other.z && Objects.equals(string, other.string) && Objects.equals(notNullString, other.notNullString)\n" //
+		+ "			&& Objects.equals(boxed, other.boxed) && Arrays.equals(ints, other.ints) && Arrays.equals(children, other.children)\n" //
+		+ "			&& Objects.equals(list, other.list) && Objects.equals(any, other.any) && Objects.equals(child, other.child)\n" //
+		+ "			&& Objects.equals(baseName, other.baseName);\n" //
+		+ "	}\n" //
+		+ "}\n" //
+		+ "class Base {\n" //
+		+ "	public String baseName;\n" //
+		+ "}\n";
+	static private final String child = "package sample;\n" //
+		+ "@com.esotericsoftware.kryo.processor.GenerateSerializer\n" //
+		+ "class Child {\n" //
+		+ "	String name;\n" //
+		+ "	public boolean equals (Object o) {\n" //
+		+ "		return o instanceof Child && java.util.Objects.equals(name, ((Child)o).name);\n" //
+		+ "	}\n" //
+		+ "}\n";
+
+	@TempDir Path dir;
+
+	@Test
+	void testGeneratedSerializerMatchesFieldSerializer () throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> errors = compile(sample, child);
+		assertTrue(errors.isEmpty(), errors.toString());
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] {dir.toUri().toURL()}, getClass().getClassLoader())) {
+			Class sampleClass = loader.loadClass("sample.Sample");
+			Class childClass = loader.loadClass("sample.Child");
+			Object object = sampleClass.getMethod("create").invoke(null);
+
+			for (boolean references : new boolean[] {false, true}) {
+				Kryo reflection = newKryo(references);
+				reflection.register(childClass);
+				reflection.register(sampleClass);
+				reflection.register(Array.newInstance(childClass, 0).getClass());
+
+				Kryo generated = newKryo(references);
+				loader.loadClass("sample.GeneratedSerializers").getMethod("register", Kryo.class).invoke(null, generated);
+				generated.register(Array.newInstance(childClass, 0).getClass());
+				assertEquals("Sample_KryoSerializer", generated.getSerializer(sampleClass).getClass().getSimpleName());
+
+				byte[] expected = write(reflection, object);
+				byte[] actual = write(generated, object);
+				assertArrayEquals(expected, actual);
+
+				assertEquals(object, read(generated, expected));
+				assertEquals(object, read(reflection, actual));
+				assertEquals(object, generated.copy(object));
+			}
+
+			Kryo kryo = new Kryo();
+			kryo.setRegistrationRequired(false);
+			loader.loadClass("sample.GeneratedSerializers").getMethod("addDefaultSerializers", Kryo.class).invoke(null, kryo);
+			assertEquals("Child_KryoSerializer", kryo.getSerializer(childClass).getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	void testUnsupportedFields () throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> errors = compile("package sample;\n" //
+			+ "@com.esotericsoftware.kryo.processor.GenerateSerializer\n" //
+			+ "public class Invalid<T> {\n" //
+			+ "}\n", //
+			"package sample;\n" //
+				+ "@com.esotericsoftware.kryo.processor.GenerateSerializer\n" //
+				+ "public class Child {\n" //
+				+ "	private int hidden;\n" //
+				+ "	final int constant = 1;\n" //
+				+ "}\n");
+		assertEquals(3, errors.size(), errors.toString());
+	}
+
+	private List<Diagnostic<? extends JavaFileObject>> compile (String... sources) throws IOException {
+		List<File> files = new ArrayList();
+		for (String source : sources) {
+			String name = source.substring(source.indexOf("class ") + 6).split("[ <{]")[0];
+			Path file = dir.resolve(name + ".java");
+			Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+			files.add(file.toFile());
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			String classpath = classpath(Kryo.class) + File.pathSeparator + classpath(GenerateSerializer.class)
+				+ File.pathSeparator + classpath(ObjectInstantiator.class);
+			List<String> options = Arrays.asList("-d", dir.toString(), "-classpath", classpath);
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+				fileManager.getJavaFileObjectsFromFiles(files));
+			task.setProcessors(Collections.singletonList(new SerializerProcessor()));
+			task.call();
+		}
+
+		List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) errors.add(diagnostic);
+		return errors;
+	}
+
+	private String classpath (Class type) {
+		try {
+			return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+		} catch (URISyntaxException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private Kryo newKryo (boolean references) {
+		Kryo kryo = new Kryo();
+		kryo.setReferences(references);
+		kryo.register(int[].class);
+		kryo.register(ArrayList.class);
+		return kryo;
+	}
+
+	private byte[] write (Kryo kryo, Object object) {
+		Output output = new Output(1024, -1);
+		kryo.writeClassAndObject(output, object);
+		return output.toBytes();
+	}
+
+	private Object read (Kryo kryo, byte[] bytes) {
+		return kryo.readClassAndObject(new Input(bytes));
+	}
+}
@@ -78,6 +78,7 @@ import com.esotericsoftware.kryo.serializers.DefaultSerializers.TreeSetSerialize
 import com.esotericsoftware.kryo.serializers.DefaultSerializers.URLSerializer;
 import com.esotericsoftware.kryo.serializers.DefaultSerializers.VoidSerializer;
 import com.esotericsoftware.kryo.serializers.FieldSerializer;
+import com.esotericsoftware.kryo.serializers.FieldSerializer.CachedField;
 import com.esotericsoftware.kryo.serializers.ImmutableCollectionsSerializers;
 import com.esotericsoftware.kryo.serializers.MapSerializer;
 import com.esotericsoftware.kryo.serializers.OptionalSerializers;
@@ -90,6 +91,7 @@ import com.esotericsoftware.kryo.util.Generics;
 import com.esotericsoftware.kryo.util.Generics.GenericType;
 import com.esotericsoftware.kryo.util.Generics.GenericsHierarchy;
 import com.esotericsoftware.kryo.util.IdentityMap;
+import com.esotericsoftware.kryo.util.ImmutabilityAnalyzer;
 import com.esotericsoftware.kryo.util.IntArray;
 import com.esotericsoftware.kryo.util.MapReferenceResolver;
 import com.esotericsoftware.kryo.util.NoGenerics;
@@ -156,6 +158,7 @@ public class Kryo {
 	private final IntArray readReferenceIds = new IntArray(0);
 	private boolean references, copyReferences = true;
 	private Object readObject;
+	private ImmutabilityAnalyzer immutabilityAnalyzer;
 
 	private int copyDepth;
 	private boolean copyShallow;
@@ -466,7 +469,9 @@ public class Kryo {
 	 * method to customize behavior. The default implementation calls {@link SerializerFactory#newSerializer(Kryo, Class)} using
 	 * the {@link #setDefaultSerializer(Class) default serializer}. */
 	protected Serializer newDefaultSerializer (Class type) {
-		return defaultSerializer.newSerializer(this, type);
+		Serializer serializer = defaultSerializer.newSerializer(this, type);
+		if (immutabilityAnalyzer != null && immutabilityAnalyzer.isImmutable(type)) serializer.setImmutable(true);
+		return serializer;
 	}
 
 	// --- Registration ---
@@ -601,6 +606,71 @@ public class Kryo {
 		return getRegistration(type).getSerializer();
 	}
 
+	/** Eagerly creates the registrations, serializers, and instantiators for the specified classes and, for
+	 * {@link FieldSerializer} and its subclasses, the classes of their fields, recursively. This moves the cost of building
+	 * serializers out of the first serialization of each class. Field classes which are not registered are skipped if
+	 * {@link #setRegistrationRequired(boolean) registration is required}.
+	 * @throws IllegalArgumentException if one of the specified classes is not registered and registration is required.
+	 * @see #warmUpSamples(Collection, int) */
+	public void warmUp (Collection<Class> types) {
+		if (types == null) throw new IllegalArgumentException("types cannot be null.");
+		IdentityMap<Class, Boolean> visited = new IdentityMap();
+		for (Class type : types) {
+			if (type == null) throw new IllegalArgumentException("types cannot contain null.");
+			warmUp(getRegistration(type), visited);
+		}
+		if (DEBUG) debug("kryo", "Warmed up " + visited.size + " classes.");
+	}
+
+	private void warmUp (Registration registration, IdentityMap<Class, Boolean> visited) {
+		Class type = registration.getType();
+		if (visited.put(type, Boolean.TRUE) != null) return;
+		Serializer serializer = registration.getSerializer();
+		if (!(serializer instanceof FieldSerializer)) return;
+
+		if (registration.getInstantiator() == null && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+			try {
+				registration.setInstantiator(newInstantiator(type));
+			} catch (Exception ex) {
+				if (TRACE) trace("kryo", "Unable to create instantiator during warm up: " + className(type), ex);
+			}
+		}
+
+		for (CachedField field : ((FieldSerializer)serializer).getFields()) {
+			Class fieldType = field.getValueClass() != null ? field.getValueClass() : field.getField().getType();
+			while (fieldType.isArray())
+				fieldType = fieldType.getComponentType();
+			if (fieldType.isPrimitive() || visited.containsKey(fieldType)) continue;
+			Registration fieldRegistration = classResolver.getRegistration(fieldType);
+			if (fieldRegistration == null) {
+				if (registrationRequired) continue;
+				fieldRegistration = getRegistration(fieldType);
+			}
+			warmUp(fieldRegistration, visited);
+		}
+	}
+
+	/** Serializes and deserializes each sample the specified number of times, so the code paths used for those classes are
+	 * executed (and compiled by the JIT) before the first real object graph. Each round trip is a complete object graph, so this
+	 * must not be called while an object graph is being serialized or deserialized.
+	 * @see #warmUp(Collection) */
+	public void warmUpSamples (Collection samples, int iterations) {
+		if (samples == null) throw new IllegalArgumentException("samples cannot be null.");
+		if (iterations < 0) throw new IllegalArgumentException("iterations cannot be < 0: " + iterations);
+		Output output = new Output(1024, -1);
+		Input input = new Input();
+		for (int i = 0; i < iterations; i++) {
+			for (Object sample : samples) {
+				output.reset();
+				writeClassAndObject(output, sample);
+				input.setBuffer(output.getBuffer(), 0, output.position());
+				readClassAndObject(input);
+				reset();
+			}
+		}
+		if (DEBUG) debug("kryo", "Warmed up " + samples.size() + " samples, iterations: " + iterations);
+	}
+
 	// --- Serialization ---
 
 	/** Writes a class and returns its registration.
@@ -723,7 +793,7 @@ public class Kryo {
 			return true;
 		}
 
-		if (!referenceResolver.useReferences(object.getClass())) {
+		if (!useReferences(object.getClass())) {
 			if (mayBeNull) {
 				if (TRACE) trace("kryo", "Write: <not null>" + pos(output.position()));
 				output.writeByte(NOT_NULL);
@@ -749,6 +819,11 @@ public class Kryo {
 		return false;
 	}
 
+	private boolean useReferences (Class type) {
+		return referenceResolver.useReferences(type)
+			&& (immutabilityAnalyzer == null || !immutabilityAnalyzer.isImmutable(type));
+	}
+
 	/** Reads a class and returns its registration.
 	 * @return May be null.
 	 * @see ClassResolver#readClass(Input) */
@@ -804,6 +879,30 @@ public class Kryo {
 		}
 	}
 
+	/** Reads an object using the registered serializer, reading only the fields in the projection. Other fields are skipped and
+	 * left at their default values. Child objects are read in full.
+	 * @see Serializer#read(Kryo, Input, Class, Projection) */
+	public <T> T readObject (Input input, Class<T> type, Projection projection) {
+		if (input == null) throw new IllegalArgumentException("input cannot be null.");
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		if (projection == null) throw new IllegalArgumentException("projection cannot be null.");
+		beginObject();
+		try {
+			T object;
+			if (references) {
+				int stackSize = readReferenceOrNull(input, type, false);
+				if (stackSize == REF) return (T)readObject;
+				object = (T)getRegistration(type).getSerializer().read(this, input, type, projection);
+				if (stackSize == readReferenceIds.size) reference(object);
+			} else
+				object = (T)getRegistration(type).getSerializer().read(this, input, type, projection);
+			if (TRACE || (DEBUG && depth == 1)) log("Read", object, input.position());
+			return object;
+		} finally {
+			if (--depth == 0 && autoReset) reset();
+		}
+	}
+
 	/** Reads an object or null using the registered serializer.
 	 * @return May be null. */
 	public <T> T readObjectOrNull (Input input, Class<T> type) {
@@ -885,11 +984,98 @@ public class Kryo {
 		}
 	}
 
+	/** Reads past an object written by {@link #writeObject(Output, Object)} using the registered serializer. When possible, the
+	 * object is not created.
+	 * @see Serializer#skip(Kryo, Input, Class) */
+	public void skipObject (Input input, Class type) {
+		if (input == null) throw new IllegalArgumentException("input cannot be null.");
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		beginObject();
+		try {
+			skip(input, type, getRegistration(type).getSerializer(), false);
+		} finally {
+			if (--depth == 0 && autoReset) reset();
+		}
+	}
+
+	/** Reads past an object written by {@link #writeObject(Output, Object, Serializer)} using the specified serializer. When
+	 * possible, the object is not created. */
+	public void skipObject (Input input, Class type, Serializer serializer) {
+		if (input == null) throw new IllegalArgumentException("input cannot be null.");
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		if (serializer == null) throw new IllegalArgumentException("serializer cannot be null.");
+		beginObject();
+		try {
+			skip(input, type, serializer, false);
+		} finally {
+			if (--depth == 0 && autoReset) reset();
+		}
+	}
+
+	/** Reads past an object or null written by {@link #writeObjectOrNull(Output, Object, Class)} using the registered
+	 * serializer. When possible, the object is not created. */
+	public void skipObjectOrNull (Input input, Class type) {
+		if (input == null) throw new IllegalArgumentException("input cannot be null.");
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		beginObject();
+		try {
+			skip(input, type, getRegistration(type).getSerializer(), true);
+		} finally {
+			if (--depth == 0 && autoReset) reset();
+		}
+	}
+
+	/** Reads past an object or null written by {@link #writeObjectOrNull(Output, Object, Serializer)} using the specified
+	 * serializer. When possible, the object is not created. */
+	public void skipObjectOrNull (Input input, Class type, Serializer serializer) {
+		if (input == null) throw new IllegalArgumentException("input cannot be null.");
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		if (serializer == null) throw new IllegalArgumentException("serializer cannot be null.");
+		beginObject();
+		try {
+			skip(input, type, serializer, true);
+		} finally {
+			if (--depth == 0 && autoReset) reset();
+		}
+	}
+
+	/** Reads past the class and object or null written by {@link #writeClassAndObject(Output, Object)}. When possible, the object
+	 * is not created. */
+	public void skipClassAndObject (Input input) {
+		if (input == null) throw new IllegalArgumentException("input cannot be null.");
+		beginObject();
+		try {
+			Registration registration = readClass(input);
+			if (registration != null) skip(input, registration.getType(), registration.getSerializer(), false);
+		} finally {
+			if (--depth == 0 && autoReset) reset();
+		}
+	}
+
+	private void skip (Input input, Class type, Serializer serializer, boolean mayBeNull) {
+		if (references) {
+			int stackSize = readReferenceOrNull(input, type, mayBeNull);
+			if (stackSize == REF) return;
+			if (readReferenceIds.peek() != NO_REF) {
+				// The object may be referenced by later data, so it must be created.
+				Object object = serializer.read(this, input, type);
+				if (stackSize == readReferenceIds.size) reference(object);
+				return;
+			}
+			serializer.skip(this, input, type);
+			if (stackSize == readReferenceIds.size) readReferenceIds.pop();
+		} else {
+			if (mayBeNull && !serializer.getAcceptsNull() && input.readByte() == NULL) return;
+			serializer.skip(this, input, type);
+		}
+		if (TRACE) trace("kryo", "Skip: " + className(type) + pos(input.position()));
+	}
+
 	/** Returns {@link #REF} if a reference to a previously read object was read, which is stored in {@link #readObject}. Returns a
 	 * stack size (> 0) if a reference ID has been put on the stack. */
 	int readReferenceOrNull (Input input, Class type, boolean mayBeNull) {
 		if (type.isPrimitive()) type = getWrapperClass(type);
-		boolean referencesSupported = referenceResolver.useReferences(type);
+		boolean referencesSupported = useReferences(type);
 		int id;
 		if (mayBeNull) {
 			id = input.readVarInt(true);
@@ -970,6 +1156,7 @@ public class Kryo {
 	public <T> T copy (T object) {
 		if (object == null) return null;
 		if (copyShallow) return object;
+		if (immutabilityAnalyzer != null && immutabilityAnalyzer.isImmutable(object.getClass())) return object;
 		copyDepth++;
 		try {
 			if (originalToCopy == null) originalToCopy = new IdentityMap();
@@ -996,6 +1183,7 @@ public class Kryo {
 	public <T> T copy (T object, Serializer serializer) {
 		if (object == null) return null;
 		if (copyShallow) return object;
+		if (immutabilityAnalyzer != null && immutabilityAnalyzer.isImmutable(object.getClass())) return object;
 		copyDepth++;
 		try {
 			if (originalToCopy == null) originalToCopy = new IdentityMap();
@@ -1147,7 +1335,10 @@ public class Kryo {
 			readObject = null;
 		}
 		this.references = references;
-		if (references && referenceResolver == null) referenceResolver = new MapReferenceResolver();
+		if (references && referenceResolver == null) {
+			referenceResolver = new MapReferenceResolver();
+			referenceResolver.setKryo(this);
+		}
 		if (TRACE) trace("kryo", "References: " + references);
 		return !references;
 	}
@@ -1165,6 +1356,7 @@ public class Kryo {
 		if (referenceResolver == null) throw new IllegalArgumentException("referenceResolver cannot be null.");
 		this.references = true;
 		this.referenceResolver = referenceResolver;
+		referenceResolver.setKryo(this);
 		if (TRACE) trace("kryo", "Reference resolver: " + referenceResolver.getClass().getName());
 	}
 
@@ -1172,6 +1364,24 @@ public class Kryo {
 		return references;
 	}
 
+	/** Sets the analyzer used to determine which classes are deeply immutable. Objects of immutable classes are not tracked by
+	 * the {@link #setReferenceResolver(ReferenceResolver) reference resolver}, are returned as is by {@link #copy(Object)}, and
+	 * {@link Serializer#setImmutable(boolean)} is set for their {@link #newDefaultSerializer(Class) default serializers}. Default is
+	 * null, which disables the analysis.
+	 * <p>
+	 * Since this affects which objects are written with references, the same setting must be used for serialization and
+	 * deserialization. Immutable objects that are referenced multiple times in a graph are written each time they are encountered.
+	 * @param immutabilityAnalyzer May be null. */
+	public void setImmutabilityAnalyzer (ImmutabilityAnalyzer immutabilityAnalyzer) {
+		this.immutabilityAnalyzer = immutabilityAnalyzer;
+		if (TRACE) trace("kryo", "Immutability analysis: " + (immutabilityAnalyzer != null));
+	}
+
+	/** @return May be null. */
+	public ImmutabilityAnalyzer getImmutabilityAnalyzer () {
+		return immutabilityAnalyzer;
+	}
+
 	/** Sets the strategy used by {@link #newInstantiator(Class)} for creating objects. See {@link StdInstantiatorStrategy} to
 	 * create objects via without calling any constructor. See {@link SerializingInstantiatorStrategy} to mimic Java's built-in
 	 * serialization.
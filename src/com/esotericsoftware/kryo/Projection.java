@@ -0,0 +1,58 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/** The names of the fields to read for an object, used by {@link Kryo#readObject(com.esotericsoftware.kryo.io.Input, Class,
+ * Projection)}. Fields that are not in the projection are skipped and left at their default values. A projection is immutable and
+ * can be shared.
+ * @see Serializer#read(Kryo, com.esotericsoftware.kryo.io.Input, Class, Projection)
+ * @author Nathan Sweet */
+public final class Projection {
+	private final String[] fieldNames;
+	private final HashSet<String> names;
+
+	private Projection (String[] fieldNames) {
+		this.fieldNames = fieldNames;
+		names = new HashSet(Arrays.asList(fieldNames));
+	}
+
+	public static Projection of (String... fieldNames) {
+		if (fieldNames == null) throw new IllegalArgumentException("fieldNames cannot be null.");
+		for (String fieldName : fieldNames)
+			if (fieldName == null) throw new IllegalArgumentException("fieldNames cannot contain null.");
+		return new Projection(fieldNames.clone());
+	}
+
+	public boolean contains (String fieldName) {
+		return names.contains(fieldName);
+	}
+
+	public String[] getFieldNames () {
+		return fieldNames.clone();
+	}
+
+	public String toString () {
+		return Arrays.toString(fieldNames);
+	}
+}
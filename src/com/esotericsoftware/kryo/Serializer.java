@@ -60,6 +60,29 @@ public abstract class Serializer<T> {
 	 * @return May be null if {@link #getAcceptsNull()} is true. */
 	public abstract T read (Kryo kryo, Input input, Class<? extends T> type);
 
+	/** Reads bytes and returns a new object of the specified concrete type, reading only the fields in the projection. Fields that
+	 * are not in the projection are skipped and left at their default values. The default implementation throws
+	 * {@link KryoException}. Serializers that can skip fields can override this method.
+	 * <p>
+	 * This method should not be called directly, instead {@link Kryo#readObject(Input, Class, Projection)} can be used. */
+	public T read (Kryo kryo, Input input, Class<? extends T> type, Projection projection) {
+		throw new KryoException("Serializer does not support projection: " + getClass().getName());
+	}
+
+	/** Reads past the bytes for an object without creating it, if possible. This is used to discard data, eg for fields that have
+	 * been removed. The default implementation calls {@link #read(Kryo, Input, Class)} and discards the object. Serializers can
+	 * override this method to avoid the allocation. Such a serializer that can be subclassed should call this implementation
+	 * when a subclass overrides {@link #read(Kryo, Input, Class)}, since the subclass may use different bytes.
+	 * <p>
+	 * This is only called when later data cannot reference the object, so {@link Kryo#reference(Object)} does not need to be
+	 * called. Child objects should be skipped using the {@link Kryo} skip methods.
+	 * <p>
+	 * This method should not be called directly, instead this serializer can be passed to {@link Kryo} skip methods that accept a
+	 * serializer. */
+	public void skip (Kryo kryo, Input input, Class<? extends T> type) {
+		read(kryo, input, type);
+	}
+
 	public boolean getAcceptsNull () {
 		return acceptsNull;
 	}
@@ -25,6 +25,7 @@ import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
 import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer.CompatibleFieldSerializerConfig;
 import com.esotericsoftware.kryo.serializers.FieldSerializer;
 import com.esotericsoftware.kryo.serializers.FieldSerializer.FieldSerializerConfig;
+import com.esotericsoftware.kryo.serializers.GeneratedFieldSerializer;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.TaggedFieldSerializerConfig;
 import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
@@ -125,6 +126,27 @@ public interface SerializerFactory<T extends Serializer> {
 		}
 	}
 
+	/** A serializer factory that returns new, configured {@link GeneratedFieldSerializer} instances. */
+	public static class GeneratedFieldSerializerFactory extends BaseSerializerFactory<GeneratedFieldSerializer> {
+		private final FieldSerializerConfig config;
+
+		public GeneratedFieldSerializerFactory () {
+			this.config = new FieldSerializerConfig();
+		}
+
+		public GeneratedFieldSerializerFactory (FieldSerializerConfig config) {
+			this.config = config;
+		}
+
+		public FieldSerializerConfig getConfig () {
+			return config;
+		}
+
+		public GeneratedFieldSerializer newSerializer (Kryo kryo, Class type) {
+			return new GeneratedFieldSerializer(kryo, type, config.clone());
+		}
+	}
+
 	/** A serializer factory that returns new, configured {@link TaggedFieldSerializer} instances.
 	 * @author Nathan Sweet */
 	public static class TaggedFieldSerializerFactory extends BaseSerializerFactory<TaggedFieldSerializer> {
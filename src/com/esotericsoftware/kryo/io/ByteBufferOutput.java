@@ -141,6 +141,7 @@ public class ByteBufferOutput extends Output {
 		capacity = buffer.capacity();
 		position = buffer.position();
 		total = 0;
+		openLengths = 0;
 		outputStream = null;
 	}
 
@@ -180,8 +181,10 @@ public class ByteBufferOutput extends Output {
 
 	protected boolean require (int required) throws KryoException {
 		if (capacity - position >= required) return false;
-		flush();
+		if (openLengths == 0) flush();
 		if (capacity - position >= required) return true;
+		// While a length is open, a buffer that would be flushed to a stream grows instead.
+		int maxCapacity = openLengths > 0 && outputStream != null ? Util.maxArraySize : this.maxCapacity;
 		if (required > maxCapacity - position) {
 			if (required > maxCapacity)
 				throw new KryoBufferOverflowException("Buffer overflow. Max capacity: " + maxCapacity + ", required: " + required);
@@ -341,6 +341,21 @@ public class Input extends InputStream implements Poolable {
 		return count;
 	}
 
+	/** Reads a length written by {@link Output#beginLength()} and {@link Output#endLength(int)}.
+	 * @return The {@link #total()} at the end of the data, which can be passed to {@link #skipTo(long)}. */
+	public long readLength () throws KryoException {
+		int length = readInt();
+		if (length < 0) throw new KryoException("Invalid length: " + length);
+		return total() + length;
+	}
+
+	/** Discards bytes until {@link #total()} is the specified value. */
+	public void skipTo (long total) throws KryoException {
+		long count = total - total();
+		if (count < 0) throw new KryoException("Read past the end of the data: " + -count + " bytes");
+		skip(count);
+	}
+
 	/** Closes the underlying InputStream, if any. */
 	public void close () throws KryoException {
 		if (inputStream != null) {
@@ -845,6 +860,27 @@ public class Input extends InputStream implements Poolable {
 		return new String(chars, 0, charCount);
 	}
 
+	/** Discards a string written by {@link Output#writeString(String)} without creating it. */
+	public void skipString () {
+		if (!readVarIntFlag()) { // ASCII.
+			while ((readByte() & 0x80) == 0) {
+			}
+			return;
+		}
+		int charCount = readVarIntFlag(true);
+		for (int i = 1; i < charCount; i++) {
+			switch ((readByte() & 0xFF) >> 4) {
+			case 12:
+			case 13:
+				skip(1);
+				break;
+			case 14:
+				skip(2);
+				break;
+			}
+		}
+	}
+
 	/** Reads the length and string of UTF8 characters, or null. For non-ASCII strings, this method avoids allocating a string by
 	 * reading directly to the StringBuilder. This can read strings written by {@link Output#writeString(String)} and
 	 * {@link Output#writeAscii(String)}.
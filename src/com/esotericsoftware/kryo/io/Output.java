@@ -37,6 +37,7 @@ public class Output extends OutputStream implements AutoCloseable, Poolable {
 	protected byte[] buffer;
 	protected OutputStream outputStream;
 	protected boolean varEncoding = true;
+	protected int openLengths;
 
 	/** Creates an uninitialized Output, {@link #setBuffer(byte[], int)} must be called before the Output is used. */
 	public Output () {
@@ -121,6 +122,7 @@ public class Output extends OutputStream implements AutoCloseable, Poolable {
 		capacity = buffer.length;
 		position = 0;
 		total = 0;
+		openLengths = 0;
 		outputStream = null;
 	}
 
@@ -172,14 +174,17 @@ public class Output extends OutputStream implements AutoCloseable, Poolable {
 	public void reset () {
 		position = 0;
 		total = 0;
+		openLengths = 0;
 	}
 
 	/** Ensures the buffer is large enough to read the specified number of bytes.
 	 * @return true if the buffer has been resized. */
 	protected boolean require (int required) throws KryoException {
 		if (capacity - position >= required) return false;
-		flush();
+		if (openLengths == 0) flush();
 		if (capacity - position >= required) return true;
+		// While a length is open, a buffer that would be flushed to a stream grows instead.
+		int maxCapacity = openLengths > 0 && outputStream != null ? Util.maxArraySize : this.maxCapacity;
 		if (required > maxCapacity - position) {
 			if (required > maxCapacity)
 				throw new KryoBufferOverflowException("Buffer overflow. Max capacity: " + maxCapacity + ", required: " + required);
@@ -196,6 +201,30 @@ public class Output extends OutputStream implements AutoCloseable, Poolable {
 		return true;
 	}
 
+	/** Reserves 4 bytes for the number of bytes written until {@link #endLength(int)} is called. This allows the data to be
+	 * skipped using {@link Input#readLength()} without the overhead of {@link OutputChunked}. Until the length is ended, the
+	 * buffer is not flushed and instead grows as needed. When there is an {@link #setOutputStream(OutputStream) OutputStream}
+	 * the buffer may grow beyond the max buffer size, otherwise it is limited to it. Lengths can be nested.
+	 * @return The position of the length, which must be passed to {@link #endLength(int)}. */
+	public int beginLength () throws KryoException {
+		require(4);
+		openLengths++;
+		int start = position;
+		writeInt(0);
+		return start;
+	}
+
+	/** Writes the number of bytes written since {@link #beginLength()} to the 4 bytes it reserved.
+	 * @param start The value returned by {@link #beginLength()}. */
+	public void endLength (int start) throws KryoException {
+		if (openLengths == 0) throw new KryoException("No length has been begun.");
+		int end = position;
+		setPosition(start);
+		writeInt(end - start - 4);
+		setPosition(end);
+		openLengths--;
+	}
+
 	// OutputStream:
 
 	/** Flushes the buffered bytes. The default implementation writes the buffered bytes to the {@link #getOutputStream()
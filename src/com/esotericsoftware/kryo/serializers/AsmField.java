@@ -146,6 +146,14 @@ class AsmField extends ReflectField {
 			access.setBoolean(object, accessIndex, input.readBoolean());
 		}
 
+		boolean getBoolean (Object object) {
+			return access.getBoolean(object, accessIndex);
+		}
+
+		void setBoolean (Object object, boolean value) {
+			access.setBoolean(object, accessIndex, value);
+		}
+
 		public void copy (Object original, Object copy) {
 			access.setBoolean(copy, accessIndex, access.getBoolean(original, accessIndex));
 		}
@@ -216,10 +224,22 @@ class AsmField extends ReflectField {
 			super(field);
 		}
 
+		Object get (Object object) {
+			return access.getString(object, accessIndex);
+		}
+
+		void set (Object object, Object value) {
+			access.set(object, accessIndex, value);
+		}
+
 		public void write (Output output, Object object) {
 			output.writeString(access.getString(object, accessIndex));
 		}
 
+		void writeNotNull (Output output, Object object, Object value) {
+			output.writeString((String)value);
+		}
+
 		public void read (Input input, Object object) {
 			access.set(object, accessIndex, input.readString());
 		}
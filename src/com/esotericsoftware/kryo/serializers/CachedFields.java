@@ -57,6 +57,15 @@ import com.esotericsoftware.kryo.serializers.UnsafeField.IntUnsafeField;
 import com.esotericsoftware.kryo.serializers.UnsafeField.LongUnsafeField;
 import com.esotericsoftware.kryo.serializers.UnsafeField.ShortUnsafeField;
 import com.esotericsoftware.kryo.serializers.UnsafeField.StringUnsafeField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.BooleanVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.ByteVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.CharVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.DoubleVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.FloatVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.IntVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.LongVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.ShortVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.StringVarHandleField;
 import com.esotericsoftware.kryo.util.Generics.GenericType;
 import com.esotericsoftware.reflectasm.FieldAccess;
 
@@ -154,15 +163,21 @@ class CachedFields implements Comparator<CachedField> {
 			}
 		}
 
-		CachedField cachedField;
+		CachedField cachedField = null;
 		if (unsafe)
 			cachedField = newUnsafeField(field, fieldClass, genericType);
 		else if (accessIndex != -1) {
 			cachedField = newAsmField(field, fieldClass, genericType);
 			cachedField.access = (FieldAccess)access;
 			cachedField.accessIndex = accessIndex;
-		} else
-			cachedField = newReflectField(field, fieldClass, genericType);
+		} else if (varHandles && !Modifier.isFinal(modifiers)) {
+			try {
+				cachedField = newVarHandleField(field, fieldClass, genericType);
+			} catch (IllegalAccessException | RuntimeException | LinkageError ex) {
+				if (DEBUG) debug("kryo", "Unable to use VarHandle.", ex);
+			}
+		}
+		if (cachedField == null) cachedField = newReflectField(field, fieldClass, genericType);
 
 		cachedField.varEncoding = config.varEncoding;
 		if (config.extendedFieldNames)
@@ -179,7 +194,8 @@ class CachedFields implements Comparator<CachedField> {
 					"Cached " + fieldClass.getSimpleName() + " field: " + field.getName() + " (" + className(declaringClass) + ")");
 			}
 		} else { // Must be a primitive or String.
-			cachedField.canBeNull = fieldClass == String.class && config.fieldsCanBeNull;
+			cachedField.canBeNull = fieldClass == String.class && config.fieldsCanBeNull
+				&& !field.isAnnotationPresent(NotNull.class);
 			cachedField.valueClass = fieldClass;
 
 			if (TRACE) trace("kryo",
@@ -231,6 +247,23 @@ class CachedFields implements Comparator<CachedField> {
 		return new AsmField(field, serializer, genericType);
 	}
 
+	private CachedField newVarHandleField (Field field, Class fieldClass, GenericType genericType) throws IllegalAccessException {
+		if (fieldClass.isPrimitive()) {
+			if (fieldClass == int.class) return new IntVarHandleField(field);
+			if (fieldClass == float.class) return new FloatVarHandleField(field);
+			if (fieldClass == boolean.class) return new BooleanVarHandleField(field);
+			if (fieldClass == long.class) return new LongVarHandleField(field);
+			if (fieldClass == double.class) return new DoubleVarHandleField(field);
+			if (fieldClass == short.class) return new ShortVarHandleField(field);
+			if (fieldClass == char.class) return new CharVarHandleField(field);
+			if (fieldClass == byte.class) return new ByteVarHandleField(field);
+		}
+		if (fieldClass == String.class
+			&& (!serializer.kryo.getReferences() || !serializer.kryo.getReferenceResolver().useReferences(String.class)))
+			return new StringVarHandleField(field);
+		return new VarHandleField(field, serializer, genericType);
+	}
+
 	private CachedField newReflectField (Field field, Class fieldClass, GenericType genericType) {
 		if (fieldClass.isPrimitive()) {
 			if (fieldClass == int.class) return new IntReflectField(field);
@@ -20,6 +20,7 @@
 package com.esotericsoftware.kryo.serializers;
 
 import static com.esotericsoftware.kryo.Kryo.*;
+import static com.esotericsoftware.kryo.util.Util.*;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -45,9 +46,12 @@ public class CollectionSerializer<T extends Collection> extends Serializer<T> {
 	private boolean elementsCanBeNull = true;
 	private Serializer elementSerializer;
 	private Class elementClass;
+	private final boolean skipByReading;
 
 	public CollectionSerializer () {
 		setAcceptsNull(true);
+		// A subclass that reads its own bytes can't be skipped using this class' format.
+		skipByReading = isOverridden(getClass(), CollectionSerializer.class, "read", Kryo.class, Input.class, Class.class);
 	}
 
 	/** @param elementsCanBeNull False if all elements are not null. This saves 1 byte per element if elementClass is set. True if
@@ -250,6 +254,73 @@ public class CollectionSerializer<T extends Collection> extends Serializer<T> {
 		}
 	}
 
+	/** Skips the elements without adding them to a collection. {@link #create(Kryo, Input, Class, int)} is still called in case
+	 * it reads data written by {@link #writeHeader(Kryo, Output, Collection)}. If a subclass overrides
+	 * {@link #read(Kryo, Input, Class)}, the collection is read and discarded instead. */
+	public void skip (Kryo kryo, Input input, Class<? extends T> type) {
+		if (skipByReading) {
+			super.skip(kryo, input, type);
+			return;
+		}
+		Class elementClass = this.elementClass;
+		Serializer elementSerializer = this.elementSerializer;
+		if (elementSerializer == null) {
+			Class genericClass = kryo.getGenerics().nextGenericClass();
+			if (genericClass != null && kryo.isFinal(genericClass)) {
+				elementSerializer = kryo.getSerializer(genericClass);
+				elementClass = genericClass;
+			}
+		}
+
+		try {
+			int length;
+			boolean elementsCanBeNull = this.elementsCanBeNull;
+			if (elementSerializer != null) {
+				if (elementsCanBeNull) {
+					elementsCanBeNull = input.readVarIntFlag();
+					length = input.readVarIntFlag(true);
+				} else
+					length = input.readVarInt(true);
+				if (length == 0) return;
+
+				length--;
+				create(kryo, input, type, 0);
+				if (length == 0) return;
+			} else {
+				boolean sameType = input.readVarIntFlag();
+				length = input.readVarIntFlag(true);
+				if (length == 0) return;
+
+				length--;
+				create(kryo, input, type, 0);
+				if (length == 0) return;
+
+				if (sameType) {
+					Registration registration = kryo.readClass(input);
+					if (registration == null) return; // All elements are null.
+					elementClass = registration.getType();
+					elementSerializer = kryo.getSerializer(elementClass);
+					if (elementsCanBeNull) elementsCanBeNull = input.readBoolean();
+				}
+			}
+
+			if (elementSerializer != null) {
+				if (elementsCanBeNull) {
+					for (int i = 0; i < length; i++)
+						kryo.skipObjectOrNull(input, elementClass, elementSerializer);
+				} else {
+					for (int i = 0; i < length; i++)
+						kryo.skipObject(input, elementClass, elementSerializer);
+				}
+			} else {
+				for (int i = 0; i < length; i++)
+					kryo.skipClassAndObject(input);
+			}
+		} finally {
+			kryo.getGenerics().popGenericType();
+		}
+	}
+
 	/** Used by {@link #copy(Kryo, Collection)} to create the new object. This can be overridden to customize object creation, eg
 	 * to call a constructor with arguments. The default implementation uses {@link Kryo#newInstance(Class)}. */
 	protected T createCopy (Kryo kryo, T original) {
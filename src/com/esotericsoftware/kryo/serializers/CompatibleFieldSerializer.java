@@ -24,30 +24,53 @@ import static com.esotericsoftware.minlog.Log.*;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Projection;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.InputChunked;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.io.OutputChunked;
+import com.esotericsoftware.kryo.util.IdentityMap;
 import com.esotericsoftware.kryo.util.ObjectMap;
 import com.esotericsoftware.kryo.util.Util;
 
+import java.util.Arrays;
+
 /** Serializes objects using direct field assignment, providing both forward and backward compatibility. This means fields can be
  * added or removed without invalidating previously serialized bytes. Renaming or changing the type of a field is not supported.
  * Like {@link FieldSerializer}, it can serialize most classes without needing annotations.
  * <p>
  * The forward and backward compatibility and serialization performance depend on
  * {@link CompatibleFieldSerializerConfig#setReadUnknownFieldData(boolean)} and
- * {@link CompatibleFieldSerializerConfig#setChunkedEncoding(boolean)}. Additionally, the first time the class is encountered in
- * the serialized bytes, a simple schema is written containing the field name strings.
+ * {@link CompatibleFieldSerializerConfig#setChunkedEncoding(boolean)} or
+ * {@link CompatibleFieldSerializerConfig#setLengthPrefixedEncoding(boolean)}. Additionally, the first time the class is
+ * encountered in the serialized bytes, a simple schema is written containing the field name strings. With
+ * {@link CompatibleFieldSerializerConfig#setSchemaFingerprints(boolean) schema fingerprints}, a 64-bit fingerprint of the field
+ * names is written instead and the field names are written only once per Kryo instance.
+ * <p>
+ * With {@link CompatibleFieldSerializerConfig#setAdaptiveEncoding(boolean) adaptive encoding}, the schema also has an encoding
+ * for each field. The encodings for int and long fields are chosen by {@link #selectEncodings()} from the values seen by
+ * {@link #train(Object)}.
  * <p>
  * Note that the field data is identified by name. If a super class has a field with the same name as a subclass,
  * {@link CompatibleFieldSerializerConfig#setExtendedFieldNames(boolean)} must be true.
  * @author Nathan Sweet */
 public class CompatibleFieldSerializer<T> extends FieldSerializer<T> {
 	private static final int binarySearchThreshold = 32;
+	private static final int maxReadPlans = 64;
+	private static final byte encodingDefault = 0, encodingFixed = 1, encodingVariable = 2, encodingConstant = 3;
+	private static final int maxConstants = 64;
+	private static final Object sessionsKey = new Object();
 
 	private final CompatibleFieldSerializerConfig config;
+	private CachedField[] fingerprintFields, planFields;
+	private final ObjectMap<ReadSchema, CachedField[]> readPlans = new ObjectMap();
+	private long fingerprint;
+	private FieldEncodings encodings;
+	private FieldStatistics[] statistics;
+	private CachedField[] statisticsFields;
+	private Projection projectedFor;
+	private CachedField[] projectedFields, projected;
 
 	public CompatibleFieldSerializer (Kryo kryo, Class type) {
 		this(kryo, type, new CompatibleFieldSerializerConfig());
@@ -61,57 +84,90 @@ public class CompatibleFieldSerializer<T> extends FieldSerializer<T> {
 	public void write (Kryo kryo, Output output, T object) {
 		int pop = pushTypeVariables();
 
-		CachedField[] fields = cachedFields.fields;
+		FieldEncodings encodings = adaptiveEncodings();
+		CachedField[] fields = encodings != null ? encodings.fields : cachedFields.fields;
 		ObjectMap context = kryo.getGraphContext();
 		if (!context.containsKey(this)) {
 			if (TRACE) trace("kryo", "Write fields for class: " + type.getName());
 			context.put(this, null);
-			output.writeVarInt(fields.length, true);
-			for (int i = 0, n = fields.length; i < n; i++) {
-				if (TRACE) trace("kryo", "Write field name: " + fields[i].name + pos(output.position()));
-				output.writeString(fields[i].name);
+			boolean writeNames = true;
+			if (config.fingerprints) {
+				SchemaSession session = schemaSession(kryo);
+				long fingerprint = fingerprint();
+				if (TRACE) trace("kryo", "Write schema fingerprint: " + Long.toHexString(fingerprint) + pos(output.position()));
+				output.writeLong(fingerprint);
+				if (session.written && session.writtenFingerprint == fingerprint) {
+					output.writeVarInt(0, true);
+					writeNames = false;
+				} else {
+					session.written = true;
+					session.writtenFingerprint = fingerprint;
+					output.writeVarInt(fields.length + 1, true);
+				}
+			} else
+				output.writeVarInt(fields.length, true);
+			if (writeNames) {
+				boolean adaptive = config.adaptiveEncoding;
+				for (int i = 0, n = fields.length; i < n; i++) {
+					if (TRACE) trace("kryo", "Write field name: " + fields[i].name + pos(output.position()));
+					output.writeString(fields[i].name);
+					if (adaptive) {
+						byte encoding = encodings != null ? encodings.encodings[i] : encodingDefault;
+						output.writeByte(encoding);
+						if (encoding == encodingConstant) output.writeVarLong(encodings.constants[i], false);
+					}
+				}
 			}
 		}
 
-		boolean chunked = config.chunked, readUnknownTagData = config.readUnknownFieldData;
+		boolean lengthPrefixed = config.lengthPrefixed, chunked = config.chunked && !lengthPrefixed;
+		boolean readUnknownTagData = config.readUnknownFieldData;
 		Output fieldOutput;
 		OutputChunked outputChunked = null;
 		if (chunked)
 			fieldOutput = outputChunked = new OutputChunked(output, config.chunkSize);
 		else
 			fieldOutput = output;
-		for (int i = 0, n = fields.length; i < n; i++) {
+		long mismatched = 0;
+		for (int i = 0, n = fields.length, constant = 0; i < n; i++) {
 			CachedField cachedField = fields[i];
-			if (TRACE) log("Write", cachedField, output.position());
-
-			// Write the value class so the field data can be read even if the field is removed.
-			if (readUnknownTagData) {
-				Class valueClass = null;
-				try {
-					if (object != null) {
-						Object value = cachedField.field.get(object);
-						if (value != null) valueClass = value.getClass();
-					}
-				} catch (IllegalAccessException ex) {
+			if (cachedField instanceof ConstantField) {
+				// A bit for each constant field with a different value is written before the first one, then those values are
+				// written in place of the fields.
+				if (constant == 0) {
+					mismatched = mismatchedConstants(fields, i, object);
+					output.writeVarLong(mismatched, true);
 				}
-				kryo.writeClass(fieldOutput, valueClass);
-				if (valueClass == null) {
-					if (chunked) outputChunked.endChunk();
-					continue;
+				if ((mismatched & 1L << constant++) != 0) {
+					if (TRACE) log("Write", cachedField, output.position());
+					((ConstantField)cachedField).writeValue(output, object);
 				}
-				cachedField.setCanBeNull(false);
-				cachedField.setValueClass(valueClass);
-				cachedField.setReuseSerializer(false);
+				continue;
 			}
+			if (TRACE) log("Write", cachedField, output.position());
+			int start = lengthPrefixed ? output.beginLength() : 0;
 
-			cachedField.write(fieldOutput, object);
-			if (chunked) outputChunked.endChunk();
+			// Write the value class so the field data can be read even if the field is removed.
+			if (readUnknownTagData)
+				writeClassAndValue(fieldOutput, cachedField, object);
+			else
+				cachedField.write(fieldOutput, object);
+			if (chunked)
+				outputChunked.endChunk();
+			else if (lengthPrefixed) output.endLength(start);
 		}
 
 		popTypeVariables(pop);
 	}
 
 	public T read (Kryo kryo, Input input, Class<? extends T> type) {
+		return read(kryo, input, type, null);
+	}
+
+	/** Reads only the fields in the projection. Other fields are read past without setting them.
+	 * @param projection May be null to read all fields.
+	 * @see CompatibleFieldSerializerConfig#setSkipUnknownFieldData(boolean) */
+	public T read (Kryo kryo, Input input, Class<? extends T> type, Projection projection) {
 		int pop = pushTypeVariables();
 
 		T object = create(kryo, input, type);
@@ -119,45 +175,85 @@ public class CompatibleFieldSerializer<T> extends FieldSerializer<T> {
 
 		CachedField[] fields = (CachedField[])kryo.getGraphContext().get(this);
 		if (fields == null) fields = readFields(kryo, input);
+		if (projection != null) fields = project(fields, projection);
 
-		boolean chunked = config.chunked, readUnknownTagData = config.readUnknownFieldData;
+		boolean lengthPrefixed = config.lengthPrefixed, chunked = config.chunked && !lengthPrefixed;
+		boolean skippable = chunked || lengthPrefixed, readUnknownTagData = config.readUnknownFieldData;
+		// Unknown data can be skipped without reading it if it can't define references or class names used by later data.
+		boolean skipData = config.skipUnknownFieldData && skippable && !kryo.getReferences() && kryo.isRegistrationRequired();
 		Input fieldInput;
 		InputChunked inputChunked = null;
 		if (chunked)
 			fieldInput = inputChunked = new InputChunked(input, config.chunkSize);
 		else
 			fieldInput = input;
-		for (int i = 0, n = fields.length; i < n; i++) {
+		long mismatched = 0;
+		for (int i = 0, n = fields.length, constant = 0; i < n; i++) {
 			CachedField cachedField = fields[i];
+			if (cachedField instanceof ConstantField) {
+				if (constant == 0) mismatched = input.readVarLong(true);
+				if ((mismatched & 1L << constant++) != 0) {
+					if (TRACE) trace("kryo", "Read value for constant field: " + cachedField + pos(input.position()));
+					((ConstantField)cachedField).readValue(input, object);
+				} else {
+					if (TRACE) trace("kryo", "Read constant field: " + cachedField);
+					cachedField.read(input, object);
+				}
+				continue;
+			}
+			long end = lengthPrefixed ? input.readLength() : -1;
 
+			if ((cachedField == null || cachedField instanceof SkippedField) && skipData) {
+				if (TRACE) trace("kryo", "Skip field data." + pos(input.position()));
+				nextField(input, inputChunked, end);
+				continue;
+			}
+			if (cachedField instanceof SkippedField) {
+				CachedField skipped = ((SkippedField)cachedField).skipped;
+				if (TRACE) trace("kryo", "Skip field: " + cachedField + pos(input.position()));
+				if (readUnknownTagData) {
+					Registration registration = kryo.readClass(fieldInput);
+					if (registration != null) {
+						if (skipped != null)
+							skipValue(fieldInput, skipped, registration);
+						else
+							((SkippedField)cachedField).skipUnknown(fieldInput, registration.getType());
+					}
+				} else if (skipped != null)
+					skipped.skip(fieldInput);
+				else if (!skippable) //
+					throw new KryoException("Unknown field. (" + getType().getName() + ")");
+				nextField(input, inputChunked, end);
+				continue;
+			}
 			if (readUnknownTagData) {
 				Registration registration;
 				try {
 					registration = kryo.readClass(fieldInput);
 				} catch (KryoException ex) {
 					String message = "Unable to read unknown data (unknown type). (" + getType().getName() + "#" + cachedField + ")";
-					if (!chunked) throw new KryoException(message, ex);
+					if (!skippable) throw new KryoException(message, ex);
 					if (DEBUG) debug("kryo", message, ex);
-					inputChunked.nextChunk();
+					nextField(input, inputChunked, end);
 					continue;
 				}
 				if (registration == null) {
-					if (chunked) inputChunked.nextChunk();
+					nextField(input, inputChunked, end);
 					continue;
 				}
 				Class valueClass = registration.getType();
 				if (cachedField == null) {
-					// Read unknown data in case it is a reference.
+					// Skip unknown data. It is only created if it may be referenced.
 					if (TRACE) trace("kryo", "Read unknown data, type: " + className(valueClass) + pos(input.position()));
 					try {
-						kryo.readObject(fieldInput, valueClass);
+						kryo.skipObject(fieldInput, valueClass);
 					} catch (KryoException ex) {
 						String message = "Unable to read unknown data, type: " + className(valueClass) + " (" + getType().getName()
 							+ "#" + cachedField + ")";
-						if (!chunked) throw new KryoException(message, ex);
+						if (!skippable) throw new KryoException(message, ex);
 						if (DEBUG) debug("kryo", message, ex);
 					}
-					if (chunked) inputChunked.nextChunk();
+					nextField(input, inputChunked, end);
 					continue;
 				}
 
@@ -165,43 +261,243 @@ public class CompatibleFieldSerializer<T> extends FieldSerializer<T> {
 				if (cachedField.valueClass != null && !Util.isAssignableTo(valueClass, cachedField.field.getType())) {
 					String message = "Read type is incompatible with the field type: " + className(valueClass) + " -> "
 						+ className(cachedField.valueClass) + " (" + getType().getName() + "#" + cachedField + ")";
-					if (!chunked) throw new KryoException(message);
+					if (!skippable) throw new KryoException(message);
 					if (DEBUG) debug("kryo", message);
-					inputChunked.nextChunk();
+					nextField(input, inputChunked, end);
 					continue;
 				}
 
-				cachedField.setCanBeNull(false);
-				cachedField.setValueClass(valueClass);
-				cachedField.setReuseSerializer(false);
+
+				if (TRACE) log("Read", cachedField, input.position());
+				readValue(fieldInput, cachedField, object, registration);
+				nextField(input, inputChunked, end);
+				continue;
 			} else if (cachedField == null) {
-				if (!chunked) throw new KryoException("Unknown field. (" + getType().getName() + ")");
+				if (!skippable) throw new KryoException("Unknown field. (" + getType().getName() + ")");
 				if (TRACE) trace("kryo", "Skip unknown field.");
-				inputChunked.nextChunk();
+				nextField(input, inputChunked, end);
 				continue;
 			}
 
 			if (TRACE) log("Read", cachedField, input.position());
 			cachedField.read(fieldInput, object);
-			if (chunked) inputChunked.nextChunk();
+			nextField(input, inputChunked, end);
 		}
 
 		popTypeVariables(pop);
 		return object;
 	}
 
+	/** Returns a bit for each constant field, starting at the specified index, that has a value other than the constant. */
+	private long mismatchedConstants (CachedField[] fields, int start, T object) {
+		long mismatched = 0;
+		for (int i = start, n = fields.length, constant = 0; i < n; i++) {
+			if (!(fields[i] instanceof ConstantField)) continue;
+			if (((ConstantField)fields[i]).isMismatched(object)) mismatched |= 1L << constant;
+			constant++;
+		}
+		return mismatched;
+	}
+
+	private void nextField (Input input, InputChunked inputChunked, long end) {
+		if (inputChunked != null)
+			inputChunked.nextChunk();
+		else if (end != -1) input.skipTo(end);
+	}
+
 	private CachedField[] readFields (Kryo kryo, Input input) {
 		if (TRACE) trace("kryo", "Read fields for class: " + type.getName());
 
-		int length = input.validateArrayLength(input.readVarInt(true));
+		if (!config.fingerprints) {
+			CachedField[] fields = matchFields(readSchema(input, input.readVarInt(true)));
+			kryo.getGraphContext().put(this, fields);
+			return fields;
+		}
+
+		long fingerprint = input.readLong();
+		if (TRACE) trace("kryo", "Read schema fingerprint: " + Long.toHexString(fingerprint));
+		int length = input.readVarInt(true);
+		SchemaSession session = schemaSession(kryo);
+		CachedField[] fields;
+		if (length != 0) {
+			fields = matchFields(readSchema(input, length - 1));
+			session.fields.put(fingerprint, fields);
+		} else {
+			fields = session.fields.get(fingerprint);
+			if (fields == null) {
+				// The names were not sent in this session, the writer must have the same fields.
+				if (fingerprint != fingerprint())
+					throw new KryoException("Unknown schema fingerprint: " + Long.toHexString(fingerprint) + " (" + type.getName() + ")");
+				FieldEncodings encodings = adaptiveEncodings();
+				fields = encodings != null ? encodings.fields : cachedFields.fields;
+			}
+		}
+		kryo.getGraphContext().put(this, fields);
+		return fields;
+	}
+
+	/** Returns the fields to read with fields not in the projection replaced by fields that skip their data. The result for the
+	 * last projection is cached. */
+	private CachedField[] project (CachedField[] fields, Projection projection) {
+		if (projection == projectedFor && fields == projectedFields) return projected;
+		CachedField[] projected = new CachedField[fields.length];
+		for (int i = 0, n = fields.length; i < n; i++) {
+			CachedField cachedField = fields[i];
+			if (cachedField == null || cachedField instanceof SkippedField || projection.contains(cachedField.name))
+				projected[i] = cachedField;
+			else if (cachedField instanceof ConstantField) // Values that differ from the constant are in the data.
+				projected[i] = new ConstantField(null, cachedField.name, 0);
+			else
+				projected[i] = new SkippedField(cachedField);
+		}
+		projectedFor = projection;
+		projectedFields = fields;
+		this.projected = projected;
+		return projected;
+	}
+
+	private ReadSchema readSchema (Input input, int length) {
+		length = input.validateArrayLength(length);
 		String[] names = new String[length];
-		for (int i = 0; i < length; i++) {
+		byte[] encodings = null;
+		long[] constants = null;
+		if (config.adaptiveEncoding) {
+			encodings = new byte[length];
+			constants = new long[length];
+		}
+		for (int i = 0, constantCount = 0; i < length; i++) {
 			names[i] = input.readString();
 			if (TRACE) trace("kryo", "Read field name: " + names[i]);
+			if (encodings != null) {
+				byte encoding = input.readByte();
+				if (encoding < encodingDefault || encoding > encodingConstant)
+					throw new KryoException("Unknown field encoding " + encoding + ": " + names[i] + " (" + type.getName() + ")");
+				encodings[i] = encoding;
+				if (encoding == encodingConstant) {
+					if (++constantCount > maxConstants)
+						throw new KryoException("Too many constant fields: " + constantCount + " (" + type.getName() + ")");
+					constants[i] = input.readVarLong(false);
+				}
+			}
 		}
+		return new ReadSchema(names, encodings, constants);
+	}
 
-		CachedField[] fields = new CachedField[length];
+	/** Returns the fields to read for the field names written, with null for unknown fields. The result is cached for each
+	 * distinct schema, so matching the names is only done once. */
+	private CachedField[] matchFields (ReadSchema schema) {
+		CachedField[] allFields = cachedFields.fields;
+		if (planFields != allFields) {
+			readPlans.clear();
+			planFields = allFields;
+		}
+		CachedField[] fields = readPlans.get(schema);
+		if (fields == null) {
+			fields = matchFields(schema.names, allFields);
+			if (schema.encodings != null) fields = applyEncodings(fields, schema);
+			if (readPlans.size < maxReadPlans) readPlans.put(schema, fields);
+		} else if (TRACE) trace("kryo", "Use cached read plan for class: " + type.getName());
+		return fields;
+	}
+
+	/** Replaces fields written with an encoding other than the default with a field using that encoding. */
+	private CachedField[] applyEncodings (CachedField[] fields, ReadSchema schema) {
+		byte[] encodings = schema.encodings;
+		CachedField[] encoded = null;
+		for (int i = 0, n = fields.length; i < n; i++) {
+			if (encodings[i] == encodingDefault) continue;
+			if (encoded == null) encoded = fields.clone();
+			encoded[i] = encodedField(fields[i], schema.names[i], encodings[i], schema.constants[i]);
+		}
+		return encoded != null ? encoded : fields;
+	}
+
+	/** @param field May be null if the field is unknown. */
+	private CachedField encodedField (CachedField field, String name, byte encoding, long constant) {
+		if (field == null) {
+			if (encoding == encodingConstant) return new ConstantField(null, name, constant);
+			return new SkippedField(name, encoding == encodingVariable);
+		}
+		Class valueClass = field.valueClass;
+		if (valueClass != int.class && valueClass != long.class) {
+			throw new KryoException("Field encoding is only supported for int and long fields: " + name + " ("
+				+ type.getName() + ")");
+		}
+		if (encoding == encodingConstant) return new ConstantField(field, name, constant);
+		CachedField encoded = field.duplicate();
+		encoded.varEncoding = encoding == encodingVariable;
+		return encoded;
+	}
+
+	/** Records the values of the int and long fields of the object. These are used by {@link #selectEncodings()} to choose the
+	 * encoding for each field. */
+	public void train (T object) {
+		CachedField[] fields = cachedFields.fields;
+		FieldStatistics[] statistics = this.statistics;
+		if (statisticsFields != fields) {
+			this.statistics = statistics = new FieldStatistics[fields.length];
+			statisticsFields = fields;
+		}
+		for (int i = 0, n = fields.length; i < n; i++) {
+			CachedField cachedField = fields[i];
+			Class valueClass = cachedField.valueClass;
+			if (valueClass != int.class && valueClass != long.class) continue;
+			long value;
+			try {
+				value = ((Number)cachedField.get(object)).longValue();
+			} catch (IllegalAccessException ex) {
+				throw new KryoException("Error accessing field: " + cachedField + " (" + type.getName() + ")", ex);
+			}
+			if (statistics[i] == null) statistics[i] = new FieldStatistics(valueClass == long.class);
+			statistics[i].add(value);
+		}
+	}
+
+	/** Chooses the encoding for each int and long field from the values recorded by {@link #train(Object)}, then clears the
+	 * recorded values. A field that always had the same value is not written, otherwise fixed or variable length encoding is
+	 * used, whichever was smaller. Objects with such fields have 1 byte of flags for up to 7 of the fields, and a value other than
+	 * the constant chosen for a field is written after the flags using variable length encoding, so the values used for training
+	 * should be representative. At most 64 fields are not written. The encodings are only used with
+	 * {@link CompatibleFieldSerializerConfig#setAdaptiveEncoding(boolean) adaptive encoding}. */
+	public void selectEncodings () {
 		CachedField[] allFields = cachedFields.fields;
+		int n = allFields.length;
+		CachedField[] fields = allFields.clone();
+		byte[] encodings = new byte[n];
+		long[] constants = new long[n];
+		if (statisticsFields == allFields) {
+			for (int i = 0, constantCount = 0; i < n; i++) {
+				FieldStatistics statistics = this.statistics[i];
+				if (statistics == null) continue;
+				encodings[i] = statistics.select(constantCount < maxConstants);
+				if (encodings[i] == encodingConstant) constantCount++;
+				constants[i] = statistics.first;
+				fields[i] = encodedField(allFields[i], allFields[i].name, encodings[i], constants[i]);
+				if (DEBUG) debug("kryo", "Field encoding " + encodings[i] + ": " + allFields[i] + " (" + type.getName() + ")");
+			}
+		}
+		this.encodings = new FieldEncodings(allFields, fields, encodings, constants);
+		statistics = null;
+		statisticsFields = null;
+	}
+
+	/** Returns the encodings selected for the current fields, or null. */
+	private FieldEncodings adaptiveEncodings () {
+		FieldEncodings encodings = this.encodings;
+		return config.adaptiveEncoding && encodings != null && encodings.allFields == cachedFields.fields ? encodings : null;
+	}
+
+	private CachedField[] matchFields (String[] names, CachedField[] allFields) {
+		int length = names.length;
+		// When the schema has not changed, the local fields are used as is.
+		if (length == allFields.length) {
+			int i = 0;
+			while (i < length && names[i].equals(allFields[i].name))
+				i++;
+			if (i == length) return allFields;
+		}
+
+		CachedField[] fields = new CachedField[length];
 		if (length < binarySearchThreshold) {
 			outer:
 			for (int i = 0; i < length; i++) {
@@ -237,18 +533,277 @@ public class CompatibleFieldSerializer<T> extends FieldSerializer<T> {
 				if (TRACE) trace("kryo", "Unknown field will be skipped: " + schemaName);
 			}
 		}
-
-		kryo.getGraphContext().put(this, fields);
 		return fields;
 	}
 
+	private long fingerprint () {
+		FieldEncodings encodings = adaptiveEncodings();
+		CachedField[] fields = encodings != null ? encodings.fields : cachedFields.fields;
+		if (fingerprintFields != fields) {
+			fingerprint = fingerprint(fields);
+			if (encodings != null) fingerprint = fingerprint(fingerprint, encodings);
+			fingerprintFields = fields;
+		}
+		return fingerprint;
+	}
+
+	/** Adds the field encodings to a fingerprint. */
+	static long fingerprint (long hash, FieldEncodings encodings) {
+		for (int i = 0, n = encodings.encodings.length; i < n; i++) {
+			hash ^= encodings.encodings[i];
+			hash *= 0x100000001b3L;
+			if (encodings.encodings[i] == encodingConstant) {
+				for (long constant = encodings.constants[i], shift = 0; shift < 64; shift += 8) {
+					hash ^= (constant >>> shift) & 0xff;
+					hash *= 0x100000001b3L;
+				}
+			}
+		}
+		return hash;
+	}
+
+	/** Returns the 64-bit FNV-1a hash of the field names, in order. */
+	static long fingerprint (CachedField[] fields) {
+		long hash = 0xcbf29ce484222325L;
+		for (CachedField field : fields) {
+			String name = field.name;
+			for (int i = 0, n = name.length(); i < n; i++) {
+				hash ^= name.charAt(i);
+				hash *= 0x100000001b3L;
+			}
+			hash ^= 0xffff; // Separator that can't be confused with a name character.
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private SchemaSession schemaSession (Kryo kryo) {
+		ObjectMap context = kryo.getContext();
+		IdentityMap<CompatibleFieldSerializer, SchemaSession> sessions = (IdentityMap)context.get(sessionsKey);
+		if (sessions == null) {
+			sessions = new IdentityMap();
+			context.put(sessionsKey, sessions);
+		}
+		SchemaSession session = sessions.get(this);
+		if (session == null) {
+			session = new SchemaSession();
+			sessions.put(this, session);
+		}
+		return session;
+	}
+
+	/** Forgets the schemas this serializer has written and read using the Kryo instance, so the next graph written has the
+	 * field names. See {@link CompatibleFieldSerializerConfig#setSchemaFingerprints(boolean)}. */
+	public void resetSchemaSession (Kryo kryo) {
+		IdentityMap<CompatibleFieldSerializer, SchemaSession> sessions = (IdentityMap)kryo.getContext().get(sessionsKey);
+		if (sessions != null) sessions.remove(this);
+	}
+
+	/** Forgets the schemas all CompatibleFieldSerializers have written and read using the Kryo instance. This should be called
+	 * for both the writing and reading Kryo instances when a new session begins, eg for a new connection. See
+	 * {@link CompatibleFieldSerializerConfig#setSchemaFingerprints(boolean)}. */
+	public static void resetSchemaSessions (Kryo kryo) {
+		kryo.getContext().remove(sessionsKey);
+	}
+
 	public CompatibleFieldSerializerConfig getCompatibleFieldSerializerConfig () {
 		return config;
 	}
 
+	/** The field names and encodings read for a class, used as the key for a cached read plan. */
+	static final class ReadSchema {
+		final String[] names;
+		final byte[] encodings; // May be null.
+		final long[] constants; // May be null.
+		final int hashCode;
+
+		ReadSchema (String[] names, byte[] encodings, long[] constants) {
+			this.names = names;
+			this.encodings = encodings;
+			this.constants = constants;
+			hashCode = (Arrays.hashCode(names) * 31 + Arrays.hashCode(encodings)) * 31 + Arrays.hashCode(constants);
+		}
+
+		public int hashCode () {
+			return hashCode;
+		}
+
+		public boolean equals (Object object) {
+			if (!(object instanceof ReadSchema)) return false;
+			ReadSchema other = (ReadSchema)object;
+			return hashCode == other.hashCode && Arrays.equals(names, other.names) && Arrays.equals(encodings, other.encodings)
+				&& Arrays.equals(constants, other.constants);
+		}
+	}
+
+	/** The encodings chosen by {@link CompatibleFieldSerializer#selectEncodings()}. */
+	static final class FieldEncodings {
+		final CachedField[] allFields; // The fields the encodings were chosen for.
+		final CachedField[] fields; // The fields to write, using the encodings.
+		final byte[] encodings;
+		final long[] constants;
+
+		FieldEncodings (CachedField[] allFields, CachedField[] fields, byte[] encodings, long[] constants) {
+			this.allFields = allFields;
+			this.fields = fields;
+			this.encodings = encodings;
+			this.constants = constants;
+		}
+	}
+
+	/** The sizes an int or long field's values would use with each encoding. */
+	static final class FieldStatistics {
+		final boolean isLong;
+		long count, first, fixedBytes, variableBytes;
+		boolean constant = true;
+
+		FieldStatistics (boolean isLong) {
+			this.isLong = isLong;
+		}
+
+		void add (long value) {
+			if (count++ == 0)
+				first = value;
+			else if (value != first) constant = false;
+			if (isLong) {
+				fixedBytes += 8;
+				variableBytes += Output.varLongLength(value, false);
+			} else {
+				fixedBytes += 4;
+				variableBytes += Output.varIntLength((int)value, false);
+			}
+		}
+
+		byte select (boolean allowConstant) {
+			if (constant && allowConstant) return encodingConstant;
+			return fixedBytes < variableBytes ? encodingFixed : encodingVariable;
+		}
+	}
+
+	/** A field that is not written when its value is the constant chosen for it. */
+	static final class ConstantField extends CachedField {
+		final long value;
+		final CachedField accessor; // Null if the field is unknown.
+		private final CachedField valueAccessor; // Writes and reads values that differ from the constant.
+		private final Input input;
+
+		ConstantField (CachedField field, String name, long value) {
+			super(field != null ? field.field : null);
+			this.name = name;
+			this.value = value;
+			if (field == null) {
+				accessor = null;
+				valueAccessor = null;
+				input = null;
+			} else {
+				valueClass = field.valueClass;
+				valueAccessor = field.duplicate();
+				valueAccessor.varEncoding = true;
+				// The value is set by reading it with fixed length encoding, so the field's accessor is used.
+				accessor = field.duplicate();
+				accessor.varEncoding = false;
+				Output output = new Output(8);
+				if (valueClass == long.class)
+					output.writeLong(value);
+				else
+					output.writeInt((int)value);
+				input = new Input(output.toBytes());
+			}
+		}
+
+		/** Returns true if the field's value is not the constant. */
+		boolean isMismatched (Object object) {
+			try {
+				return ((Number)accessor.get(object)).longValue() != value;
+			} catch (IllegalAccessException ex) {
+				throw new KryoException("Error accessing field: " + name, ex);
+			}
+		}
+
+		/** Writes the field's value, which differs from the constant, using variable length encoding. */
+		void writeValue (Output output, Object object) {
+			valueAccessor.write(output, object);
+		}
+
+		/** Reads a value written by {@link #writeValue(Output, Object)}. */
+		void readValue (Input input, Object object) {
+			if (valueAccessor != null)
+				valueAccessor.read(input, object);
+			else
+				input.readVarLong(false); // Unknown field, the int or long value is skipped.
+		}
+
+		public void write (Output output, Object object) {
+			throw new KryoException("Constant fields are written by CompatibleFieldSerializer: " + name);
+		}
+
+		public void read (Input input, Object object) {
+			if (accessor == null) return;
+			this.input.setPosition(0);
+			accessor.read(this.input, object);
+		}
+
+		public void copy (Object original, Object copy) {
+			if (accessor != null) accessor.copy(original, copy);
+		}
+	}
+
+	/** A field whose data is read past without setting it. */
+	static final class SkippedField extends CachedField {
+		final CachedField skipped; // Null if the field is unknown.
+
+		/** A known field that is outside a projection. Its data is read past the same way the field reads it. */
+		SkippedField (CachedField skipped) {
+			super(skipped.field);
+			name = skipped.name;
+			valueClass = skipped.valueClass;
+			this.skipped = skipped;
+		}
+
+		/** An unknown int or long field written with fixed or variable length encoding, which the registered int and long
+		 * serializers can't skip. Its data can only be read past if its class was written. */
+		SkippedField (String name, boolean varEncoding) {
+			super(null);
+			this.name = name;
+			this.varEncoding = varEncoding;
+			skipped = null;
+		}
+
+		/** Reads past the value of an unknown field. */
+		void skipUnknown (Input input, Class valueClass) {
+			boolean isLong = valueClass == long.class || valueClass == Long.class;
+			if (varEncoding) {
+				if (isLong)
+					input.readVarLong(false);
+				else
+					input.readVarInt(false);
+			} else
+				input.skip(isLong ? 8 : 4);
+		}
+
+		public void write (Output output, Object object) {
+			throw new KryoException("Skipped fields are not written: " + name);
+		}
+
+		public void read (Input input, Object object) {
+			if (skipped != null) skipped.skip(input);
+		}
+
+		public void copy (Object original, Object copy) {
+		}
+	}
+
+	/** The schemas written and read using a Kryo instance. This is stored in {@link Kryo#getContext()}, so it is kept across
+	 * {@link Kryo#reset() resets}. */
+	static class SchemaSession {
+		boolean written;
+		long writtenFingerprint;
+		final ObjectMap<Long, CachedField[]> fields = new ObjectMap<>();
+	}
+
 	/** Configuration for CompatibleFieldSerializer instances. */
 	public static class CompatibleFieldSerializerConfig extends FieldSerializerConfig {
-		boolean readUnknownFieldData = true, chunked;
+		boolean readUnknownFieldData = true, chunked, lengthPrefixed, fingerprints, adaptiveEncoding, skipUnknownFieldData;
 		int chunkSize = 1024;
 
 		public CompatibleFieldSerializerConfig clone () {
@@ -295,5 +850,67 @@ public class CompatibleFieldSerializer<T> extends FieldSerializer<T> {
 		public int getChunkSize () {
 			return chunkSize;
 		}
+
+		/** When true, the number of bytes for each field is written before the field to allow unknown field data to be skipped.
+		 * The lengths are written after the field by {@link Output#endLength(int)}, so unlike {@link #setChunkedEncoding(boolean)
+		 * chunked encoding} no additional buffers are needed, though the buffer holds the whole object until it is written. When
+		 * true, chunked encoding is not used. Default is false.
+		 * @see #setReadUnknownFieldData(boolean) */
+		public void setLengthPrefixedEncoding (boolean lengthPrefixed) {
+			this.lengthPrefixed = lengthPrefixed;
+			if (TRACE) trace("kryo", "CompatibleFieldSerializerConfig setLengthPrefixed: " + lengthPrefixed);
+		}
+
+		public boolean getLengthPrefixedEncoding () {
+			return lengthPrefixed;
+		}
+
+		/** When true and {@link #setChunkedEncoding(boolean) chunked} or {@link #setLengthPrefixedEncoding(boolean) length
+		 * prefixed} encoding is used, unknown field data and fields outside a {@link com.esotericsoftware.kryo.Projection} are
+		 * skipped without reading the data. This is only done if {@link Kryo#setReferences(boolean) references} are disabled and
+		 * {@link Kryo#setRegistrationRequired(boolean) registration is required}.
+		 * <p>
+		 * This must not be used if the skipped data may contain objects whose serializers write data the first time a class is
+		 * encountered that later data depends on, eg a CompatibleFieldSerializer writes the field names or
+		 * {@link #setSchemaFingerprints(boolean) schema} the first time its class is encountered. If that data is skipped, reading
+		 * the next object of the class fails. When false, unknown data is skipped by reading it. Default is false. */
+		public void setSkipUnknownFieldData (boolean skipUnknownFieldData) {
+			this.skipUnknownFieldData = skipUnknownFieldData;
+			if (TRACE) trace("kryo", "CompatibleFieldSerializerConfig setSkipUnknownFieldData: " + skipUnknownFieldData);
+		}
+
+		public boolean getSkipUnknownFieldData () {
+			return skipUnknownFieldData;
+		}
+
+		/** When true, the first time a class is encountered in an object graph a 64-bit fingerprint of its field names is written,
+		 * rather than the field names. The field names are written only the first time the class is encountered by the Kryo
+		 * instance, then are remembered across {@link Kryo#reset() resets} by the reading Kryo instance. If the reader has not
+		 * seen the field names for a fingerprint, eg because it is a new Kryo instance, the fingerprint must match the reader's
+		 * own fields.
+		 * <p>
+		 * This reduces the size of small object graphs, but requires all graphs written by a Kryo instance to be read, in order,
+		 * by the same Kryo instance, or by a reader with the same fields. Use
+		 * {@link CompatibleFieldSerializer#resetSchemaSessions(Kryo)} when a new session begins. Default is false. */
+		public void setSchemaFingerprints (boolean fingerprints) {
+			this.fingerprints = fingerprints;
+			if (TRACE) trace("kryo", "CompatibleFieldSerializerConfig setSchemaFingerprints: " + fingerprints);
+		}
+
+		public boolean getSchemaFingerprints () {
+			return fingerprints;
+		}
+
+		/** When true, the schema has an encoding for each field and readers use the encodings in the schema. This allows the
+		 * encodings chosen by {@link CompatibleFieldSerializer#selectEncodings()} to be used for int and long fields. Both the
+		 * writer and the reader must use the same setting. Default is false. */
+		public void setAdaptiveEncoding (boolean adaptiveEncoding) {
+			this.adaptiveEncoding = adaptiveEncoding;
+			if (TRACE) trace("kryo", "CompatibleFieldSerializerConfig setAdaptiveEncoding: " + adaptiveEncoding);
+		}
+
+		public boolean getAdaptiveEncoding () {
+			return adaptiveEncoding;
+		}
 	}
 }
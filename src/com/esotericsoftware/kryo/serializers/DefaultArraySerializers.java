@@ -53,6 +53,12 @@ public class DefaultArraySerializers {
 			return input.readBytes(length - 1);
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			input.skip(length - 1);
+		}
+
 		public byte[] copy (Kryo kryo, byte[] original) {
 			byte[] copy = new byte[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -80,6 +86,13 @@ public class DefaultArraySerializers {
 			return input.readInts(length - 1, false);
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			for (int i = 1; i < length; i++)
+				input.readInt(false);
+		}
+
 		public int[] copy (Kryo kryo, int[] original) {
 			int[] copy = new int[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -107,6 +120,12 @@ public class DefaultArraySerializers {
 			return input.readFloats(length - 1);
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			input.skip((length - 1) * 4L);
+		}
+
 		public float[] copy (Kryo kryo, float[] original) {
 			float[] copy = new float[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -134,6 +153,13 @@ public class DefaultArraySerializers {
 			return input.readLongs(length - 1, false);
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			for (int i = 1; i < length; i++)
+				input.readLong(false);
+		}
+
 		public long[] copy (Kryo kryo, long[] original) {
 			long[] copy = new long[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -161,6 +187,12 @@ public class DefaultArraySerializers {
 			return input.readShorts(length - 1);
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			input.skip((length - 1) * 2L);
+		}
+
 		public short[] copy (Kryo kryo, short[] original) {
 			short[] copy = new short[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -188,6 +220,12 @@ public class DefaultArraySerializers {
 			return input.readChars(length - 1);
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			input.skip((length - 1) * 2L);
+		}
+
 		public char[] copy (Kryo kryo, char[] original) {
 			char[] copy = new char[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -215,6 +253,12 @@ public class DefaultArraySerializers {
 			return input.readDoubles(length - 1);
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			input.skip((length - 1) * 8L);
+		}
+
 		public double[] copy (Kryo kryo, double[] original) {
 			double[] copy = new double[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -246,6 +290,12 @@ public class DefaultArraySerializers {
 			return array;
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			input.skip(length - 1);
+		}
+
 		public boolean[] copy (Kryo kryo, boolean[] original) {
 			boolean[] copy = new boolean[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -289,6 +339,19 @@ public class DefaultArraySerializers {
 			return array;
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int length = input.readVarInt(true);
+			if (length == NULL) return;
+			if (kryo.getReferences() && kryo.getReferenceResolver().useReferences(String.class)) {
+				Serializer serializer = kryo.getSerializer(String.class);
+				for (int i = 1; i < length; i++)
+					kryo.skipObjectOrNull(input, String.class, serializer);
+			} else {
+				for (int i = 1; i < length; i++)
+					input.skipString();
+			}
+		}
+
 		public String[] copy (Kryo kryo, String[] original) {
 			String[] copy = new String[original.length];
 			System.arraycopy(original, 0, copy, 0, copy.length);
@@ -358,6 +421,26 @@ public class DefaultArraySerializers {
 			return object;
 		}
 
+		public void skip (Kryo kryo, Input input, Class type) {
+			int n = input.readVarInt(true);
+			if (n == NULL) return;
+			n--;
+			Class elementClass = type.getComponentType();
+			if (elementsAreSameType || kryo.isFinal(elementClass)) {
+				Serializer elementSerializer = kryo.getSerializer(elementClass);
+				if (elementsCanBeNull) {
+					for (int i = 0; i < n; i++)
+						kryo.skipObjectOrNull(input, elementClass, elementSerializer);
+				} else {
+					for (int i = 0; i < n; i++)
+						kryo.skipObject(input, elementClass, elementSerializer);
+				}
+			} else {
+				for (int i = 0; i < n; i++)
+					kryo.skipClassAndObject(input);
+			}
+		}
+
 		public Object[] copy (Kryo kryo, Object[] original) {
 			int n = original.length;
 			Object[] copy = (Object[])Array.newInstance(original.getClass().getComponentType(), n);
@@ -91,6 +91,10 @@ public class DefaultSerializers {
 		public Boolean read (Kryo kryo, Input input, Class<? extends Boolean> type) {
 			return input.readBoolean();
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Boolean> type) {
+			input.skip(1);
+		}
 	}
 
 	public static class ByteSerializer extends ImmutableSerializer<Byte> {
@@ -101,6 +105,10 @@ public class DefaultSerializers {
 		public Byte read (Kryo kryo, Input input, Class<? extends Byte> type) {
 			return input.readByte();
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Byte> type) {
+			input.skip(1);
+		}
 	}
 
 	public static class CharSerializer extends ImmutableSerializer<Character> {
@@ -111,6 +119,10 @@ public class DefaultSerializers {
 		public Character read (Kryo kryo, Input input, Class<? extends Character> type) {
 			return input.readChar();
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Character> type) {
+			input.skip(2);
+		}
 	}
 
 	public static class ShortSerializer extends ImmutableSerializer<Short> {
@@ -121,6 +133,10 @@ public class DefaultSerializers {
 		public Short read (Kryo kryo, Input input, Class<? extends Short> type) {
 			return input.readShort();
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Short> type) {
+			input.skip(2);
+		}
 	}
 
 	public static class IntSerializer extends ImmutableSerializer<Integer> {
@@ -131,6 +147,10 @@ public class DefaultSerializers {
 		public Integer read (Kryo kryo, Input input, Class<? extends Integer> type) {
 			return input.readInt(false);
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Integer> type) {
+			input.readInt(false);
+		}
 	}
 
 	public static class LongSerializer extends ImmutableSerializer<Long> {
@@ -141,6 +161,10 @@ public class DefaultSerializers {
 		public Long read (Kryo kryo, Input input, Class<? extends Long> type) {
 			return input.readVarLong(false);
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Long> type) {
+			input.readVarLong(false);
+		}
 	}
 
 	public static class FloatSerializer extends ImmutableSerializer<Float> {
@@ -151,6 +175,10 @@ public class DefaultSerializers {
 		public Float read (Kryo kryo, Input input, Class<? extends Float> type) {
 			return input.readFloat();
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Float> type) {
+			input.skip(4);
+		}
 	}
 
 	public static class DoubleSerializer extends ImmutableSerializer<Double> {
@@ -161,6 +189,10 @@ public class DefaultSerializers {
 		public Double read (Kryo kryo, Input input, Class<? extends Double> type) {
 			return input.readDouble();
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends Double> type) {
+			input.skip(8);
+		}
 	}
 
 	/** @see Output#writeString(String) */
@@ -176,6 +208,10 @@ public class DefaultSerializers {
 		public String read (Kryo kryo, Input input, Class<? extends String> type) {
 			return input.readString();
 		}
+
+		public void skip (Kryo kryo, Input input, Class<? extends String> type) {
+			input.skipString();
+		}
 	}
 
 	/** Serializer for {@link BigInteger} and any subclass.
@@ -24,6 +24,7 @@ import static com.esotericsoftware.minlog.Log.*;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.SerializerFactory;
 import com.esotericsoftware.kryo.io.Input;
@@ -39,6 +40,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 
 /** Serializes objects using direct field assignment. FieldSerializer is generic and can serialize most classes without any
  * configuration. All non-public fields are written and read by default, so it is important to evaluate each class that will be
@@ -59,11 +61,16 @@ import java.lang.reflect.Field;
  * @author Nathan Sweet
  * @author Roman Levenstein <romixlev@gmail.com> */
 public class FieldSerializer<T> extends Serializer<T> {
+	private static final byte noFlag = 0, booleanFlag = 1, nullFlag = 2;
+
 	final Kryo kryo;
 	final Class type;
 	final FieldSerializerConfig config;
 	final CachedFields cachedFields;
 	private final GenericsHierarchy genericsHierarchy;
+	private PackedFlags packedFlags;
+	private Object[][] flagValues = new Object[0][];
+	private int flagDepth;
 
 	public FieldSerializer (Kryo kryo, Class type) {
 		this(kryo, type, new FieldSerializerConfig());
@@ -98,12 +105,18 @@ public class FieldSerializer<T> extends Serializer<T> {
 	public void updateFields () {
 		if (TRACE) trace("kryo", "Update fields: " + className(type));
 		cachedFields.rebuild();
+		packedFlags = null;
 	}
 
 	public void write (Kryo kryo, Output output, T object) {
 		int pop = pushTypeVariables();
 
 		CachedField[] fields = cachedFields.fields;
+		if (config.packedFlags) {
+			writePacked(output, object, fields);
+			popTypeVariables(pop);
+			return;
+		}
 		for (int i = 0, n = fields.length; i < n; i++) {
 			if (TRACE) log("Write", fields[i], output.position());
 			try {
@@ -125,6 +138,11 @@ public class FieldSerializer<T> extends Serializer<T> {
 		kryo.reference(object);
 
 		CachedField[] fields = cachedFields.fields;
+		if (config.packedFlags) {
+			readPacked(input, object, fields);
+			popTypeVariables(pop);
+			return object;
+		}
 		for (int i = 0, n = fields.length; i < n; i++) {
 			if (TRACE) log("Read", fields[i], input.position());
 			try {
@@ -140,6 +158,118 @@ public class FieldSerializer<T> extends Serializer<T> {
 		return object;
 	}
 
+	/** For each group of up to 64 flags, writes a bitmap with the values of boolean fields and whether nullable object fields are
+	 * not null, then the group's other fields and the object field values that are not null. */
+	private void writePacked (Output output, T object, CachedField[] fields) {
+		PackedFlags packed = packedFlags(fields);
+		byte[] flags = packed.flags;
+		Object[] values = pushFlagValues(packed.maxValues);
+		try {
+			for (int group = 0, start = 0, n = packed.groupEnds.length; group < n; group++) {
+				int end = packed.groupEnds[group];
+				long bits = 0;
+				int flag = 0, value = 0;
+				for (int i = start; i < end; i++) {
+					if (flags[i] == noFlag) continue;
+					CachedField cachedField = fields[i];
+					boolean set;
+					try {
+						if (flags[i] == booleanFlag)
+							set = cachedField.getBoolean(object);
+						else
+							set = (values[value++] = cachedField.get(object)) != null;
+					} catch (IllegalAccessException ex) {
+						throw new KryoException("Error accessing field: " + cachedField.name + " (" + type.getName() + ")", ex);
+					}
+					if (set) bits |= 1L << flag;
+					flag++;
+				}
+				for (int bit = 0; bit < flag; bit += 8)
+					output.writeByte((int)(bits >>> bit));
+
+				value = 0;
+				for (int i = start; i < end; i++) {
+					CachedField cachedField = fields[i];
+					if (TRACE) log("Write", cachedField, output.position());
+					try {
+						if (flags[i] == noFlag)
+							cachedField.write(output, object);
+						else if (flags[i] == nullFlag) {
+							Object fieldValue = values[value++];
+							if (fieldValue != null) cachedField.writeNotNull(output, object, fieldValue);
+						}
+					} catch (KryoException e) {
+						throw e;
+					} catch (Exception e) {
+						throw new KryoException("Error writing " + cachedField + " at position " + output.position(), e);
+					}
+				}
+				start = end;
+			}
+		} finally {
+			Arrays.fill(values, null);
+			flagDepth--;
+		}
+	}
+
+	private void readPacked (Input input, T object, CachedField[] fields) {
+		PackedFlags packed = packedFlags(fields);
+		byte[] flags = packed.flags;
+		for (int group = 0, start = 0, n = packed.groupEnds.length; group < n; group++) {
+			int end = packed.groupEnds[group];
+			long bits = 0;
+			for (int bit = 0, count = packed.groupFlags[group]; bit < count; bit += 8)
+				bits |= (input.readByte() & 0xffL) << bit;
+
+			for (int i = start, flag = 0; i < end; i++) {
+				CachedField cachedField = fields[i];
+				if (TRACE) log("Read", cachedField, input.position());
+				try {
+					if (flags[i] == noFlag) {
+						cachedField.read(input, object);
+						continue;
+					}
+					boolean set = (bits >>> flag++ & 1) != 0;
+					if (flags[i] == booleanFlag)
+						cachedField.setBoolean(object, set);
+					else if (set)
+						cachedField.readNotNull(input, object);
+					else
+						cachedField.set(object, null);
+				} catch (KryoException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new KryoException("Error reading " + cachedField + " at position " + input.position(), e);
+				}
+			}
+			start = end;
+		}
+	}
+
+	/** Returns the packed flags layout for the fields, computing it the first time the fields are used. */
+	private PackedFlags packedFlags (CachedField[] fields) {
+		PackedFlags packed = packedFlags;
+		if (packed == null || packed.fields != fields) packedFlags = packed = new PackedFlags(fields);
+		return packed;
+	}
+
+	/** Returns an array to hold the values of the nullable fields for a write. Nested writes of the same class use a different
+	 * array. */
+	private Object[] pushFlagValues (int size) {
+		int depth = flagDepth++;
+		if (depth == flagValues.length) flagValues = Arrays.copyOf(flagValues, depth + 1);
+		Object[] values = flagValues[depth];
+		if (values == null || values.length < size) flagValues[depth] = values = new Object[size];
+		return values;
+	}
+
+	/** Returns true if the field's value or null state is written in the bitmap for packed flags. This depends only on the field's
+	 * type and settings, so the data is the same whichever field accessor is used. */
+	static boolean isFlag (CachedField cachedField) {
+		Class fieldType = cachedField.field.getType();
+		return fieldType == boolean.class || (cachedField.canBeNull && !fieldType.isPrimitive());
+	}
+
 	/** Prepares the type variables for the serialized type. Must be balanced with {@link #popTypeVariables(int)} if >0 is
 	 * returned. */
 	protected int pushTypeVariables () {
@@ -182,6 +312,48 @@ public class FieldSerializer<T> extends Serializer<T> {
 			+ className(cachedField.field.getDeclaringClass()) + ')' + pos(position));
 	}
 
+	/** Writes the class of the field value, then the value if it is not null, so the value can be read even if the field is
+	 * unknown. The value is fetched only once and the cached field is not modified. */
+	void writeClassAndValue (Output output, CachedField cachedField, Object object) {
+		Class fieldType = cachedField.field.getType();
+		if (fieldType.isPrimitive()) {
+			// The value is never null and its class is known.
+			kryo.writeClass(output, getWrapperClass(fieldType));
+			cachedField.write(output, object);
+			return;
+		}
+		Object value;
+		try {
+			value = cachedField.get(object);
+		} catch (IllegalAccessException ex) {
+			throw new KryoException("Error accessing field: " + cachedField.name + " (" + type.getName() + ")", ex);
+		}
+		Registration registration = kryo.writeClass(output, value == null ? null : value.getClass());
+		if (value == null) return;
+		if (cachedField instanceof ReflectField)
+			((ReflectField)cachedField).writeValue(output, object, value, registration.getSerializer());
+		else
+			cachedField.write(output, object); // String fields, which get the value using their own accessor.
+	}
+
+	/** Reads a value written by {@link #writeClassAndValue(Output, CachedField, Object)} after its class has been read. The
+	 * cached field is not modified. */
+	void readValue (Input input, CachedField cachedField, Object object, Registration registration) {
+		if (cachedField instanceof ReflectField)
+			((ReflectField)cachedField).readValue(input, object, registration);
+		else
+			cachedField.read(input, object); // Primitive and String fields.
+	}
+
+	/** Reads past a value written by {@link #writeClassAndValue(Output, CachedField, Object)} after its class has been read,
+	 * without setting the field. */
+	void skipValue (Input input, CachedField cachedField, Registration registration) {
+		if (cachedField instanceof ReflectField)
+			((ReflectField)cachedField).skipValue(input, registration);
+		else
+			cachedField.skip(input); // Primitive and String fields.
+	}
+
 	/** Returns the field with the specified name, allowing field specific settings to be configured. */
 	public CachedField getField (String fieldName) {
 		for (CachedField cachedField : cachedFields.fields)
@@ -192,11 +364,13 @@ public class FieldSerializer<T> extends Serializer<T> {
 	/** Removes a field so that it won't be serialized. */
 	public void removeField (String fieldName) {
 		cachedFields.removeField(fieldName);
+		packedFlags = null;
 	}
 
 	/** Removes a field so that it won't be serialized. */
 	public void removeField (CachedField field) {
 		cachedFields.removeField(field);
+		packedFlags = null;
 	}
 
 	/** Returns the fields used for serialization. */
@@ -223,7 +397,11 @@ public class FieldSerializer<T> extends Serializer<T> {
 		return (T)kryo.newInstance(original.getClass());
 	}
 
+	/** Returns the original object if this serializer is {@link #setImmutable(boolean) immutable}, which is set for the default
+	 * serializer of a class that {@link Kryo#setImmutabilityAnalyzer(com.esotericsoftware.kryo.util.ImmutabilityAnalyzer)
+	 * immutability analysis} finds deeply immutable. Otherwise a new object is created and each field is copied. */
 	public T copy (Kryo kryo, T original) {
+		if (isImmutable()) return original;
 		T copy = createCopy(kryo, original);
 		kryo.reference(copy);
 
@@ -233,8 +411,46 @@ public class FieldSerializer<T> extends Serializer<T> {
 		return copy;
 	}
 
+	/** The fields written in the bitmap for {@link FieldSerializerConfig#setPackedFlags(boolean) packed flags}. */
+	static final class PackedFlags {
+		final CachedField[] fields;
+		/** For each field, whether it is a boolean or nullable object field written in the bitmap. */
+		final byte[] flags;
+		/** For each group of up to 64 flags, the index after the group's last field and the number of flags. */
+		final int[] groupEnds, groupFlags;
+		/** The most nullable object fields in a group. */
+		final int maxValues;
+
+		PackedFlags (CachedField[] fields) {
+			this.fields = fields;
+			int n = fields.length;
+			flags = new byte[n];
+			int count = 0;
+			for (int i = 0; i < n; i++) {
+				if (!isFlag(fields[i])) continue;
+				flags[i] = fields[i].field.getType() == boolean.class ? booleanFlag : nullFlag;
+				count++;
+			}
+			int groups = Math.max(1, (count + 63) >>> 6);
+			groupEnds = new int[groups];
+			groupFlags = new int[groups];
+			int group = 0, values = 0, maxValues = 0;
+			for (int i = 0; i < n; i++) {
+				if (flags[i] == noFlag) continue;
+				if (groupFlags[group] == 64) {
+					groupEnds[group++] = i;
+					values = 0;
+				}
+				groupFlags[group]++;
+				if (flags[i] == nullFlag) maxValues = Math.max(maxValues, ++values);
+			}
+			groupEnds[groups - 1] = n;
+			this.maxValues = maxValues;
+		}
+	}
+
 	/** Settings for serializing a field. */
-	public abstract static class CachedField {
+	public abstract static class CachedField implements Cloneable {
 		final Field field;
 		String name;
 		Class valueClass;
@@ -343,6 +559,75 @@ public class FieldSerializer<T> extends Serializer<T> {
 			return name;
 		}
 
+		/** Returns the field value. The default implementation uses reflection. */
+		Object get (Object object) throws IllegalAccessException {
+			return field.get(object);
+		}
+
+		/** Returns the value of a boolean field. The default implementation uses reflection. */
+		boolean getBoolean (Object object) throws IllegalAccessException {
+			return field.getBoolean(object);
+		}
+
+		/** Sets the value of a boolean field. The default implementation uses reflection. */
+		void setBoolean (Object object, boolean value) throws IllegalAccessException {
+			field.setBoolean(object, value);
+		}
+
+		/** Sets the field value. The default implementation uses reflection. */
+		void set (Object object, Object value) throws IllegalAccessException {
+			field.set(object, value);
+		}
+
+		/** Writes a field value that is not null without a null marker. The default implementation calls
+		 * {@link #write(Output, Object)}, which is correct for fields whose data does not depend on {@link #canBeNull}. */
+		void writeNotNull (Output output, Object object, Object value) {
+			write(output, object);
+		}
+
+		/** Reads a field value written by {@link #writeNotNull(Output, Object, Object)}. The default implementation calls
+		 * {@link #read(Input, Object)}. */
+		void readNotNull (Input input, Object object) {
+			read(input, object);
+		}
+
+		/** Reads past a value written by {@link #write(Output, Object)} without setting the field. The default implementation
+		 * handles primitive and String fields. */
+		void skip (Input input) {
+			Class type = field.getType();
+			if (type == String.class)
+				input.skipString();
+			else if (type == int.class) {
+				if (varEncoding)
+					input.readVarInt(false);
+				else
+					input.skip(4);
+			} else if (type == long.class) {
+				if (varEncoding)
+					input.readVarLong(false);
+				else
+					input.skip(8);
+			} else if (type == float.class)
+				input.skip(4);
+			else if (type == double.class)
+				input.skip(8);
+			else if (type == short.class || type == char.class)
+				input.skip(2);
+			else if (type == byte.class || type == boolean.class)
+				input.skip(1);
+			else
+				throw new KryoException("Unable to skip field: " + name + " (" + field.getDeclaringClass().getName() + ")");
+		}
+
+		/** Returns a copy of this field which can be configured separately. */
+		CachedField duplicate () {
+			try {
+				return (CachedField)clone();
+			} catch (CloneNotSupportedException ex) {
+				throw new KryoException(ex);
+			}
+		}
+
 		public abstract void write (Output output, Object object);
 
 		public abstract void read (Input input, Object object);
@@ -416,6 +701,7 @@ public class FieldSerializer<T> extends Serializer<T> {
 		boolean serializeTransient;
 		boolean varEncoding = true;
 		boolean extendedFieldNames;
+		boolean packedFlags;
 
 		public FieldSerializerConfig clone () {
 			try {
@@ -517,5 +803,21 @@ public class FieldSerializer<T> extends Serializer<T> {
 		public boolean getExtendedFieldNames () {
 			return extendedFieldNames;
 		}
+
+		/** When true, the values of boolean fields and whether nullable object fields are null are written together in a bitmap
+		 * before the other fields, using 1 bit per field instead of 1 byte, and null values are not written. If there are more than
+		 * 64 such fields, a bitmap is written before each group of 64. Which fields are in the bitmap depends only on the field
+		 * types and {@link CachedField#setCanBeNull(boolean)}, so changes to those settings must be made before the first
+		 * serialization and must match between writer and reader. This is only used by
+		 * FieldSerializer, not by subclasses that write fields differently such as {@link CompatibleFieldSerializer}. Default is
+		 * false. */
+		public void setPackedFlags (boolean packedFlags) {
+			this.packedFlags = packedFlags;
+			if (TRACE) trace("kryo", "FieldSerializerConfig packedFlags: " + packedFlags);
+		}
+
+		public boolean getPackedFlags () {
+			return packedFlags;
+		}
 	}
 }
@@ -0,0 +1,368 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.serializers;
+
+import static com.esotericsoftware.asm.Opcodes.*;
+import static com.esotericsoftware.kryo.util.Util.*;
+import static com.esotericsoftware.minlog.Log.*;
+
+import com.esotericsoftware.asm.ClassWriter;
+import com.esotericsoftware.asm.MethodVisitor;
+import com.esotericsoftware.asm.Type;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** A {@link FieldSerializer} that generates a class at runtime which writes and reads all the fields of the type in a single
+ * method. Primitive and String fields are accessed and encoded directly in the generated method, other fields call their
+ * {@link CachedField} from a call site specific to that field. This avoids the megamorphic virtual call per field of
+ * FieldSerializer. The serialized bytes are the same as FieldSerializer with the same configuration.
+ * <p>
+ * The class is generated when the serializer is first used, as a hidden class that is a nestmate of the serialized type so it can
+ * access private fields. This requires Java 15 or later and that the package of the type is open to Kryo. If the class cannot be
+ * generated, {@link com.esotericsoftware.minlog.Log#TRACE TRACE} logging is enabled, or
+ * {@link FieldSerializerConfig#setPackedFlags(boolean) packed flags} are used, the FieldSerializer implementation is used.
+ * <p>
+ * The generated classes are stateless and are shared by all serializers for a type with the same fields and settings, so only
+ * one class is defined for each.
+ * <p>
+ * {@link CachedField} settings must be configured before the serializer is first used, changes made afterward are not seen by
+ * the generated class until {@link #updateFields()} is called.
+ * @see com.esotericsoftware.kryo.SerializerFactory.GeneratedFieldSerializerFactory */
+public class GeneratedFieldSerializer<T> extends FieldSerializer<T> {
+	static private final String outputName = Type.getInternalName(Output.class);
+	static private final String inputName = Type.getInternalName(Input.class);
+	static private final String cachedFieldName = Type.getInternalName(CachedField.class);
+	static private final String accessorName = Type.getInternalName(Accessor.class);
+
+	private Accessor accessor;
+	private boolean generated;
+
+	public GeneratedFieldSerializer (Kryo kryo, Class type) {
+		super(kryo, type);
+	}
+
+	public GeneratedFieldSerializer (Kryo kryo, Class type, FieldSerializerConfig config) {
+		super(kryo, type, config);
+	}
+
+	protected void initializeCachedFields () {
+		accessor = null;
+		generated = false;
+	}
+
+	public void removeField (String fieldName) {
+		super.removeField(fieldName);
+		initializeCachedFields();
+	}
+
+	public void removeField (CachedField field) {
+		super.removeField(field);
+		initializeCachedFields();
+	}
+
+	public void write (Kryo kryo, Output output, T object) {
+		Accessor accessor = accessor();
+		if (accessor == null || TRACE || config.packedFlags) {
+			super.write(kryo, output, object);
+			return;
+		}
+
+		int pop = pushTypeVariables();
+		try {
+			accessor.write(output, object, cachedFields.fields);
+		} catch (KryoException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new KryoException("Error writing " + className(type) + " at position " + output.position(), ex);
+		}
+		popTypeVariables(pop);
+	}
+
+	public T read (Kryo kryo, Input input, Class<? extends T> type) {
+		Accessor accessor = accessor();
+		if (accessor == null || TRACE || config.packedFlags) return super.read(kryo, input, type);
+
+		int pop = pushTypeVariables();
+
+		T object = create(kryo, input, type);
+		kryo.reference(object);
+
+		try {
+			accessor.read(input, object, cachedFields.fields);
+		} catch (KryoException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new KryoException("Error reading " + className(this.type) + " at position " + input.position(), ex);
+		}
+
+		popTypeVariables(pop);
+		return object;
+	}
+
+	/** Returns the generated accessor, generating it the first time, or null if it could not be generated. */
+	Accessor accessor () {
+		if (!generated) {
+			generated = true;
+			try {
+				accessor = accessor(type, cachedFields.fields);
+			} catch (Throwable ex) {
+				if (DEBUG) debug("kryo", "Unable to generate field serializer class, using FieldSerializer: " + className(type), ex);
+			}
+		}
+		return accessor;
+	}
+
+	/** Returns the accessor for the fields, generating it if no serializer for the type has generated one for the same fields. */
+	static private Accessor accessor (Class type, CachedField[] fields) throws Throwable {
+		if (isAndroid) throw new KryoException("Hidden classes are not available on Android.");
+		String layout = layout(type, fields);
+		ConcurrentHashMap<String, Accessor> accessors = Accessors.accessors.get(type);
+		Accessor accessor = accessors.get(layout);
+		if (accessor == null) {
+			synchronized (accessors) {
+				accessor = accessors.get(layout);
+				if (accessor == null) {
+					accessor = generate(type, fields);
+					accessors.put(layout, accessor);
+					if (DEBUG) debug("kryo", "Generated field serializer class: " + className(type));
+				}
+			}
+		}
+		return accessor;
+	}
+
+	/** Returns a key for everything about the fields that affects the generated class. */
+	static private String layout (Class type, CachedField[] fields) {
+		StringBuilder buffer = new StringBuilder();
+		for (CachedField field : fields) {
+			if (inline(type, field)) {
+				Field javaField = field.field;
+				buffer.append(javaField.getDeclaringClass().getName()).append('.').append(javaField.getName());
+				if (field.varEncoding) buffer.append('~');
+			} else
+				buffer.append('*'); // Calls the cached field at this index.
+			buffer.append(',');
+		}
+		return buffer.toString();
+	}
+
+	static private Accessor generate (Class type, CachedField[] fields) throws Throwable {
+		if (type.isInterface() || type.isArray() || type.isPrimitive()) throw new KryoException("Type has no fields.");
+		// The generated class is defined in the type's class loader, so it must be able to see the Kryo classes it uses.
+		ClassLoader loader = type.getClassLoader();
+		if (loader == null || Class.forName(Accessor.class.getName(), false, loader) != Accessor.class)
+			throw new KryoException("Kryo classes are not visible from the class loader of: " + className(type));
+
+		String typeName = Type.getInternalName(type);
+		String className = typeName + "$KryoAccessor";
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, accessorName, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, accessorName, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// void write (Output output, Object object, CachedField[] fields)
+		mv = cw.visitMethod(ACC_PUBLIC, "write", "(L" + outputName + ";Ljava/lang/Object;[L" + cachedFieldName + ";)V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitTypeInsn(CHECKCAST, typeName);
+		mv.visitVarInsn(ASTORE, 4);
+		for (int i = 0, n = fields.length; i < n; i++) {
+			CachedField field = fields[i];
+			if (!inline(type, field)) {
+				mv.visitVarInsn(ALOAD, 3);
+				pushInt(mv, i);
+				mv.visitInsn(AALOAD);
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitVarInsn(ALOAD, 2);
+				mv.visitMethodInsn(INVOKEVIRTUAL, cachedFieldName, "write", "(L" + outputName + ";Ljava/lang/Object;)V", false);
+				continue;
+			}
+			Field javaField = field.field;
+			Class fieldType = javaField.getType();
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitVarInsn(ALOAD, 4);
+			mv.visitFieldInsn(GETFIELD, typeName, javaField.getName(), Type.getDescriptor(fieldType));
+			if (fieldType == int.class) {
+				if (field.varEncoding) {
+					mv.visitInsn(ICONST_0);
+					mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeVarInt", "(IZ)I", false);
+					mv.visitInsn(POP);
+				} else
+					mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeInt", "(I)V", false);
+			} else if (fieldType == long.class) {
+				if (field.varEncoding) {
+					mv.visitInsn(ICONST_0);
+					mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeVarLong", "(JZ)I", false);
+					mv.visitInsn(POP);
+				} else
+					mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeLong", "(J)V", false);
+			} else if (fieldType == float.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeFloat", "(F)V", false);
+			else if (fieldType == double.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeDouble", "(D)V", false);
+			else if (fieldType == short.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeShort", "(I)V", false);
+			else if (fieldType == char.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeChar", "(C)V", false);
+			else if (fieldType == byte.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeByte", "(B)V", false);
+			else if (fieldType == boolean.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeBoolean", "(Z)V", false);
+			else
+				mv.visitMethodInsn(INVOKEVIRTUAL, outputName, "writeString", "(Ljava/lang/String;)V", false);
+		}
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// void read (Input input, Object object, CachedField[] fields)
+		mv = cw.visitMethod(ACC_PUBLIC, "read", "(L" + inputName + ";Ljava/lang/Object;[L" + cachedFieldName + ";)V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitTypeInsn(CHECKCAST, typeName);
+		mv.visitVarInsn(ASTORE, 4);
+		for (int i = 0, n = fields.length; i < n; i++) {
+			CachedField field = fields[i];
+			if (!inline(type, field)) {
+				mv.visitVarInsn(ALOAD, 3);
+				pushInt(mv, i);
+				mv.visitInsn(AALOAD);
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitVarInsn(ALOAD, 2);
+				mv.visitMethodInsn(INVOKEVIRTUAL, cachedFieldName, "read", "(L" + inputName + ";Ljava/lang/Object;)V", false);
+				continue;
+			}
+			Field javaField = field.field;
+			Class fieldType = javaField.getType();
+			mv.visitVarInsn(ALOAD, 4);
+			mv.visitVarInsn(ALOAD, 1);
+			if (fieldType == int.class) {
+				if (field.varEncoding) {
+					mv.visitInsn(ICONST_0);
+					mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readVarInt", "(Z)I", false);
+				} else
+					mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readInt", "()I", false);
+			} else if (fieldType == long.class) {
+				if (field.varEncoding) {
+					mv.visitInsn(ICONST_0);
+					mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readVarLong", "(Z)J", false);
+				} else
+					mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readLong", "()J", false);
+			} else if (fieldType == float.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readFloat", "()F", false);
+			else if (fieldType == double.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readDouble", "()D", false);
+			else if (fieldType == short.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readShort", "()S", false);
+			else if (fieldType == char.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readChar", "()C", false);
+			else if (fieldType == byte.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readByte", "()B", false);
+			else if (fieldType == boolean.class)
+				mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readBoolean", "()Z", false);
+			else
+				mv.visitMethodInsn(INVOKEVIRTUAL, inputName, "readString", "()Ljava/lang/String;", false);
+			mv.visitFieldInsn(PUTFIELD, typeName, javaField.getName(), Type.getDescriptor(fieldType));
+		}
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+
+		// Lookup#defineHiddenClass and Lookup.ClassOption are Java 15+.
+		Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+		Class optionClass = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+		Object options = Array.newInstance(optionClass, 1);
+		Array.set(options, 0, Enum.valueOf(optionClass, "NESTMATE"));
+		Method defineHiddenClass = Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, options.getClass());
+		Lookup hiddenLookup = (Lookup)defineHiddenClass.invoke(lookup, cw.toByteArray(), true, options);
+		Class hiddenClass = hiddenLookup.lookupClass();
+		return (Accessor)hiddenLookup.findConstructor(hiddenClass, MethodType.methodType(void.class)).invoke();
+	}
+
+	/** Returns true if the field is written and read by the generated class rather than by calling the cached field. */
+	static private boolean inline (Class type, CachedField field) {
+		if (field instanceof ReflectField) return false; // Object field.
+		Field javaField = field.field;
+		Class fieldType = javaField.getType();
+		if (!fieldType.isPrimitive() && fieldType != String.class) return false;
+		int modifiers = javaField.getModifiers();
+		if (Modifier.isFinal(modifiers)) return false;
+		// Nestmate access allows any field of the type. Inherited fields are accessed through the type, so they must be public or
+		// in the same runtime package.
+		Class declaringClass = javaField.getDeclaringClass();
+		if (declaringClass == type || Modifier.isPublic(modifiers)) return true;
+		if (Modifier.isPrivate(modifiers)) return false;
+		return declaringClass.getClassLoader() == type.getClassLoader()
+			&& packageName(declaringClass).equals(packageName(type));
+	}
+
+	static private String packageName (Class type) {
+		String name = type.getName();
+		int index = name.lastIndexOf('.');
+		return index == -1 ? "" : name.substring(0, index);
+	}
+
+	static private void pushInt (MethodVisitor mv, int value) {
+		if (value <= 5)
+			mv.visitInsn(ICONST_0 + value);
+		else if (value <= Byte.MAX_VALUE)
+			mv.visitIntInsn(BIPUSH, value);
+		else if (value <= Short.MAX_VALUE)
+			mv.visitIntInsn(SIPUSH, value);
+		else
+			mv.visitLdcInsn(value);
+	}
+
+	/** The generated accessors for each type, keyed by {@link #layout(Class, CachedField[])}. This is a separate class so
+	 * ClassValue is not loaded on Android. */
+	static private class Accessors {
+		static final ClassValue<ConcurrentHashMap<String, Accessor>> accessors = new ClassValue() {
+			protected ConcurrentHashMap<String, Accessor> computeValue (Class type) {
+				return new ConcurrentHashMap();
+			}
+		};
+	}
+
+	/** Base class for the generated classes. This is public only so it can be extended by the generated classes. */
+	static public abstract class Accessor {
+		public abstract void write (Output output, Object object, CachedField[] fields);
+
+		public abstract void read (Input input, Object object, CachedField[] fields);
+	}
+}
@@ -19,6 +19,8 @@
 
 package com.esotericsoftware.kryo.serializers;
 
+import static com.esotericsoftware.kryo.util.Util.*;
+
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.SerializerFactory;
@@ -43,9 +45,12 @@ public class MapSerializer<T extends Map> extends Serializer<T> {
 	private Class keyClass, valueClass;
 	private Serializer keySerializer, valueSerializer;
 	private boolean keysCanBeNull = true, valuesCanBeNull = true;
+	private final boolean skipByReading;
 
 	public MapSerializer () {
 		setAcceptsNull(true);
+		// A subclass that reads its own bytes can't be skipped using this class' format.
+		skipByReading = isOverridden(getClass(), MapSerializer.class, "read", Kryo.class, Input.class, Class.class);
 	}
 
 	/** @param keysCanBeNull False if all keys are not null. This saves 1 byte per key if keyClass is set. True if it is not known
@@ -239,6 +244,64 @@ public class MapSerializer<T extends Map> extends Serializer<T> {
 		return map;
 	}
 
+	/** Skips the entries without putting them in a map. {@link #create(Kryo, Input, Class, int)} is still called in case it reads
+	 * data written by {@link #writeHeader(Kryo, Output, Map)}. If a subclass overrides {@link #read(Kryo, Input, Class)}, the
+	 * map is read and discarded instead. */
+	public void skip (Kryo kryo, Input input, Class<? extends T> type) {
+		if (skipByReading) {
+			super.skip(kryo, input, type);
+			return;
+		}
+		int length = input.readVarInt(true);
+		if (length == 0) return;
+		length--;
+
+		create(kryo, input, type, 0);
+		if (length == 0) return;
+
+		Class keyClass = this.keyClass;
+		Class valueClass = this.valueClass;
+		Serializer keySerializer = this.keySerializer, valueSerializer = this.valueSerializer;
+
+		GenericType[] genericTypes = kryo.getGenerics().nextGenericTypes();
+		if (genericTypes != null) {
+			if (keySerializer == null) {
+				Class genericClass = genericTypes[0].resolve(kryo.getGenerics());
+				if (genericClass != null && kryo.isFinal(genericClass)) {
+					keySerializer = kryo.getSerializer(genericClass);
+					keyClass = genericClass;
+				}
+			}
+			if (valueSerializer == null) {
+				Class genericClass = genericTypes[1].resolve(kryo.getGenerics());
+				if (genericClass != null && kryo.isFinal(genericClass)) {
+					valueSerializer = kryo.getSerializer(genericClass);
+					valueClass = genericClass;
+				}
+			}
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (genericTypes != null) kryo.getGenerics().pushGenericType(genericTypes[0]);
+			if (keySerializer != null) {
+				if (keysCanBeNull)
+					kryo.skipObjectOrNull(input, keyClass, keySerializer);
+				else
+					kryo.skipObject(input, keyClass, keySerializer);
+			} else
+				kryo.skipClassAndObject(input);
+			if (genericTypes != null) kryo.getGenerics().popGenericType();
+			if (valueSerializer != null) {
+				if (valuesCanBeNull)
+					kryo.skipObjectOrNull(input, valueClass, valueSerializer);
+				else
+					kryo.skipObject(input, valueClass, valueSerializer);
+			} else
+				kryo.skipClassAndObject(input);
+		}
+		kryo.getGenerics().popGenericType();
+	}
+
 	protected T createCopy (Kryo kryo, T original) {
 		return (T)kryo.newInstance(original.getClass());
 	}
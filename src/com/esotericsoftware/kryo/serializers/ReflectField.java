@@ -53,10 +53,20 @@ class ReflectField extends CachedField {
 	}
 
 	public void write (Output output, Object object) {
-		Kryo kryo = fieldSerializer.kryo;
+		Object value;
 		try {
-			Object value = get(object);
+			value = get(object);
+		} catch (IllegalAccessException ex) {
+			throw new KryoException("Error accessing field: " + name + " (" + object.getClass().getName() + ")", ex);
+		}
+		write(output, object, value, canBeNull);
+	}
 
+	/** Writes the value of the field.
+	 * @param canBeNull If false, the value must not be null and no null marker is written. */
+	void write (Output output, Object object, Object value, boolean canBeNull) {
+		Kryo kryo = fieldSerializer.kryo;
+		try {
 			Serializer serializer = this.serializer;
 			Class concreteType = resolveFieldClass();
 			if (concreteType == null) {
@@ -86,8 +96,6 @@ class ReflectField extends CachedField {
 					kryo.writeObject(output, value, serializer);
 				}
 			}
-		} catch (IllegalAccessException ex) {
-			throw new KryoException("Error accessing field: " + name + " (" + object.getClass().getName() + ")", ex);
 		} catch (KryoException ex) {
 			ex.addTrace(name + " (" + object.getClass().getName() + ")");
 			throw ex;
@@ -107,7 +115,21 @@ class ReflectField extends CachedField {
 		}
 	}
 
+	void writeNotNull (Output output, Object object, Object value) {
+		write(output, object, value, false);
+	}
+
 	public void read (Input input, Object object) {
+		read(input, object, canBeNull);
+	}
+
+	void readNotNull (Input input, Object object) {
+		read(input, object, false);
+	}
+
+	/** Reads the value of the field.
+	 * @param canBeNull If false, the value was written without a null marker. */
+	void read (Input input, Object object, boolean canBeNull) {
 		Kryo kryo = fieldSerializer.kryo;
 		try {
 			Object value;
@@ -152,6 +174,97 @@ class ReflectField extends CachedField {
 		}
 	}
 
+	void skip (Input input) {
+		Kryo kryo = fieldSerializer.kryo;
+		try {
+			Serializer serializer = this.serializer;
+			Class concreteType = resolveFieldClass();
+			if (concreteType == null) {
+				// The concrete type of the field is unknown, read the class first.
+				Registration registration = kryo.readClass(input);
+				if (registration == null) return;
+				if (serializer == null) serializer = registration.getSerializer();
+				kryo.getGenerics().pushGenericType(genericType);
+				kryo.skipObject(input, registration.getType(), serializer);
+			} else {
+				if (serializer == null) serializer = kryo.getSerializer(concreteType);
+				kryo.getGenerics().pushGenericType(genericType);
+				if (canBeNull)
+					kryo.skipObjectOrNull(input, concreteType, serializer);
+				else
+					kryo.skipObject(input, concreteType, serializer);
+			}
+		} catch (KryoException ex) {
+			ex.addTrace(name + " (" + fieldSerializer.type.getName() + ")");
+			throw ex;
+		} catch (Throwable t) {
+			KryoException ex = new KryoException(t);
+			ex.addTrace(name + " (" + fieldSerializer.type.getName() + ")");
+			throw ex;
+		} finally {
+			kryo.getGenerics().popGenericType();
+		}
+	}
+
+	/** Writes a value whose class has already been written, without modifying this cached field. */
+	void writeValue (Output output, Object object, Object value, Serializer registeredSerializer) {
+		Kryo kryo = fieldSerializer.kryo;
+		Serializer serializer = this.serializer != null ? this.serializer : registeredSerializer;
+		kryo.getGenerics().pushGenericType(genericType);
+		try {
+			kryo.writeObject(output, value, serializer);
+		} catch (KryoException ex) {
+			ex.addTrace(name + " (" + object.getClass().getName() + ")");
+			throw ex;
+		} catch (Throwable t) {
+			KryoException ex = new KryoException(t);
+			ex.addTrace(name + " (" + object.getClass().getName() + ")");
+			throw ex;
+		} finally {
+			kryo.getGenerics().popGenericType();
+		}
+	}
+
+	/** Reads a value whose class has already been read, without modifying this cached field. */
+	void readValue (Input input, Object object, Registration registration) {
+		Kryo kryo = fieldSerializer.kryo;
+		Serializer serializer = this.serializer != null ? this.serializer : registration.getSerializer();
+		kryo.getGenerics().pushGenericType(genericType);
+		try {
+			set(object, kryo.readObject(input, registration.getType(), serializer));
+		} catch (IllegalAccessException ex) {
+			throw new KryoException("Error accessing field: " + name + " (" + fieldSerializer.type.getName() + ")", ex);
+		} catch (KryoException ex) {
+			ex.addTrace(name + " (" + fieldSerializer.type.getName() + ")");
+			throw ex;
+		} catch (Throwable t) {
+			KryoException ex = new KryoException(t);
+			ex.addTrace(name + " (" + fieldSerializer.type.getName() + ")");
+			throw ex;
+		} finally {
+			kryo.getGenerics().popGenericType();
+		}
+	}
+
+	/** Reads past a value whose class has already been read, without setting the field. */
+	void skipValue (Input input, Registration registration) {
+		Kryo kryo = fieldSerializer.kryo;
+		Serializer serializer = this.serializer != null ? this.serializer : registration.getSerializer();
+		kryo.getGenerics().pushGenericType(genericType);
+		try {
+			kryo.skipObject(input, registration.getType(), serializer);
+		} catch (KryoException ex) {
+			ex.addTrace(name + " (" + fieldSerializer.type.getName() + ")");
+			throw ex;
+		} catch (Throwable t) {
+			KryoException ex = new KryoException(t);
+			ex.addTrace(name + " (" + fieldSerializer.type.getName() + ")");
+			throw ex;
+		} finally {
+			kryo.getGenerics().popGenericType();
+		}
+	}
+
 	Class resolveFieldClass () {
 		if (valueClass == null) {
 			Class fieldClass = genericType.resolve(fieldSerializer.kryo.getGenerics());
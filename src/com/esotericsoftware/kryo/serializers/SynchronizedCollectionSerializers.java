@@ -93,6 +93,11 @@ public class SynchronizedCollectionSerializers {
 			return (Collection)factory.apply(sourceCollection);
 		}
 
+		@Override
+		public void skip (Kryo kryo, Input input, Class<? extends Collection> type) {
+			kryo.skipClassAndObject(input);
+		}
+
 		@Override
 		public Collection copy (Kryo kryo, Collection original) {
 			synchronized (original) {
@@ -126,6 +131,11 @@ public class SynchronizedCollectionSerializers {
 			return (Map)factory.apply(sourceMap);
 		}
 
+		@Override
+		public void skip (Kryo kryo, Input input, Class<? extends Map> type) {
+			kryo.skipClassAndObject(input);
+		}
+
 		@Override
 		public Map copy (Kryo kryo, Map original) {
 			synchronized (original) {
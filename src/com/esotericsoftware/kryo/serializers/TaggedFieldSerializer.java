@@ -25,6 +25,7 @@ import static com.esotericsoftware.minlog.Log.*;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Projection;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.InputChunked;
@@ -38,6 +39,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /** Serializes objects using direct field assignment for fields that have a <code>@Tag(int)</code> annotation, providing backward
  * compatibility and optional forward compatibility. This means fields can be added or renamed and optionally removed without
@@ -48,8 +50,9 @@ import java.util.ArrayList;
  * <p>
  * The forward and backward compatibility and serialization performance depend on
  * {@link TaggedFieldSerializerConfig#setReadUnknownTagData(boolean)} and
- * {@link TaggedFieldSerializerConfig#setChunkedEncoding(boolean)}. Additionally, a varint is written before each field for the
- * tag value.
+ * {@link TaggedFieldSerializerConfig#setChunkedEncoding(boolean)} or
+ * {@link TaggedFieldSerializerConfig#setLengthPrefixedEncoding(boolean)}. Additionally, a varint is written before each field for the
+ * tag value, unless {@link TaggedFieldSerializerConfig#setPackedTags(boolean) packed tags} are used and the tags are dense.
  * <p>
  * If <code>readUnknownTagData</code> and <code>chunkedEncoding</code> are false, fields must not be removed but the
  * {@link Deprecated} annotation can be applied. Deprecated fields are read when reading old bytes but aren't written to new
@@ -60,8 +63,12 @@ import java.util.ArrayList;
  * flexibility for classes to evolve. This comes at the cost of one varint per field.
  * @author Nathan Sweet */
 public class TaggedFieldSerializer<T> extends FieldSerializer<T> {
-	private CachedField[] writeTags;
+	private CachedField[] writeTags, sortedTags, tagTable;
 	private IntMap<CachedField> readTags;
+	private byte[] tagBitmap;
+	private int tagBase, tagSpan, tagTableBase;
+	private Projection projectedFor;
+	private IntMap<CachedField> projectedTags, projected;
 	private final TaggedFieldSerializerConfig config;
 
 	public TaggedFieldSerializer (Kryo kryo, Class type) {
@@ -99,6 +106,53 @@ public class TaggedFieldSerializer<T> extends FieldSerializer<T> {
 			cachedField.tag = tag;
 		}
 		this.writeTags = (CachedField[])writeTags.toArray(new CachedField[writeTags.size()]);
+
+		initializeTagTable(fields);
+		initializeTagBitmap();
+	}
+
+	/** Tags within a small range are looked up in an array when reading. */
+	private void initializeTagTable (CachedField[] fields) {
+		tagTable = null;
+		if (fields.length == 0) return;
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+		for (CachedField cachedField : fields) {
+			min = Math.min(min, cachedField.tag);
+			max = Math.max(max, cachedField.tag);
+		}
+		long span = (long)max - min + 1;
+		if (span > Math.max(8, fields.length * 4L)) return;
+		tagTable = new CachedField[(int)span];
+		tagTableBase = min;
+		for (CachedField cachedField : fields)
+			tagTable[cachedField.tag - min] = cachedField;
+	}
+
+	/** For {@link TaggedFieldSerializerConfig#setPackedTags(boolean) packed tags}, a presence bitmap is written instead of the
+	 * tags when it is smaller. */
+	private void initializeTagBitmap () {
+		tagBitmap = null;
+		CachedField[] sortedTags = writeTags.clone();
+		Arrays.sort(sortedTags, (a, b) -> Integer.compare(a.tag, b.tag));
+		this.sortedTags = sortedTags;
+		int n = sortedTags.length;
+		if (n == 0) return;
+
+		int base = sortedTags[0].tag, tagsLength = 0;
+		long span = (long)sortedTags[n - 1].tag - base + 1;
+		for (CachedField cachedField : sortedTags)
+			tagsLength += Output.varIntLength(cachedField.tag, true);
+		if (span > Integer.MAX_VALUE >> 2 || (span + 7) / 8 + Output.varIntLength(base, true) > tagsLength) {
+			if (TRACE) trace("kryo", "Tags are sparse, packed tags are written per field: " + className(getType()));
+			return;
+		}
+		tagBitmap = new byte[(int)((span + 7) / 8)];
+		for (CachedField cachedField : sortedTags) {
+			int bit = cachedField.tag - base;
+			tagBitmap[bit >>> 3] |= 1 << (bit & 7);
+		}
+		tagBase = base;
+		tagSpan = (int)span;
 	}
 
 	public void removeField (String fieldName) {
@@ -119,124 +173,204 @@ public class TaggedFieldSerializer<T> extends FieldSerializer<T> {
 
 		int pop = pushTypeVariables();
 
-		CachedField[] writeTags = this.writeTags;
-		output.writeVarInt(writeTags.length + 1, true);
+		boolean packed = config.packedTags, dense = packed && tagBitmap != null;
+		CachedField[] writeTags = dense ? sortedTags : this.writeTags;
+		if (!packed)
+			output.writeVarInt(writeTags.length + 1, true);
+		else if (dense)
+			output.writeVarInt((tagSpan << 1 | 1) + 1, true);
+		else
+			output.writeVarInt((writeTags.length << 1) + 1, true);
 		writeHeader(kryo, output, object);
 
-		boolean chunked = config.chunked, readUnknownTagData = config.readUnknownTagData;
 		Output fieldOutput;
 		OutputChunked outputChunked = null;
-		if (chunked)
+		if (config.chunked && !config.lengthPrefixed)
 			fieldOutput = outputChunked = new OutputChunked(output, config.chunkSize);
 		else
 			fieldOutput = output;
 
-		for (int i = 0, n = writeTags.length; i < n; i++) {
-			CachedField cachedField = writeTags[i];
-			if (TRACE) log("Write", cachedField, output.position());
-			output.writeVarInt(cachedField.tag, true);
-
-			// Write the value class so the field data can be read even if the field is removed.
-			if (readUnknownTagData) {
-				Class valueClass = null;
-				try {
-					if (object != null) {
-						Object value = cachedField.field.get(object);
-						if (value != null) valueClass = value.getClass();
-					}
-				} catch (IllegalAccessException ex) {
-				}
-				kryo.writeClass(fieldOutput, valueClass);
-				if (valueClass == null) {
-					if (chunked) outputChunked.endChunk();
-					continue;
-				}
-				cachedField.setCanBeNull(false);
-				cachedField.setValueClass(valueClass);
-				cachedField.setReuseSerializer(false);
+		if (dense) {
+			// Each bitmap byte is followed by the fields for the tags it marks, so no tags are written.
+			output.writeVarInt(tagBase, true);
+			byte[] tagBitmap = this.tagBitmap;
+			for (int i = 0, f = 0, n = tagBitmap.length; i < n; i++) {
+				int bits = tagBitmap[i];
+				output.writeByte(bits);
+				for (bits &= 0xff; bits != 0; bits &= bits - 1)
+					writeField(output, fieldOutput, outputChunked, writeTags[f++], object, false);
 			}
-
-			cachedField.write(fieldOutput, object);
-			if (chunked) outputChunked.endChunk();
+		} else {
+			for (int i = 0, n = writeTags.length; i < n; i++)
+				writeField(output, fieldOutput, outputChunked, writeTags[i], object, true);
 		}
 
 		popTypeVariables(pop);
 	}
 
+	private void writeField (Output output, Output fieldOutput, OutputChunked outputChunked, CachedField cachedField, T object,
+		boolean writeTag) {
+		if (TRACE) log("Write", cachedField, output.position());
+		if (writeTag) output.writeVarInt(cachedField.tag, true);
+		boolean lengthPrefixed = config.lengthPrefixed;
+		int start = lengthPrefixed ? output.beginLength() : 0;
+
+		// Write the value class so the field data can be read even if the field is removed.
+		if (config.readUnknownTagData)
+			writeClassAndValue(fieldOutput, cachedField, object);
+		else
+			cachedField.write(fieldOutput, object);
+		if (outputChunked != null)
+			outputChunked.endChunk();
+		else if (lengthPrefixed) output.endLength(start);
+	}
+
 	/** Can be overidden to write data needed for {@link #create(Kryo, Input, Class)}. The default implementation does nothing. */
 	protected void writeHeader (Kryo kryo, Output output, T object) {
 	}
 
 	public T read (Kryo kryo, Input input, Class<? extends T> type) {
+		return read(kryo, input, type, null);
+	}
+
+	/** Reads only the fields in the projection. Other fields are read past without setting them.
+	 * @param projection May be null to read all fields.
+	 * @see TaggedFieldSerializerConfig#setSkipUnknownTagData(boolean) */
+	public T read (Kryo kryo, Input input, Class<? extends T> type, Projection projection) {
 		int fieldCount = input.readVarInt(true);
 		if (fieldCount == NULL) return null;
 		fieldCount--;
+		boolean dense = false;
+		if (config.packedTags) {
+			dense = (fieldCount & 1) != 0;
+			fieldCount >>>= 1; // The tag span when dense.
+		}
 
 		int pop = pushTypeVariables();
 
 		T object = create(kryo, input, type);
 		kryo.reference(object);
 
-		boolean chunked = config.chunked, readUnknownTagData = config.readUnknownTagData;
 		Input fieldInput;
 		InputChunked inputChunked = null;
-		if (chunked)
+		if (config.chunked && !config.lengthPrefixed)
 			fieldInput = inputChunked = new InputChunked(input, config.chunkSize);
 		else
 			fieldInput = input;
-		IntMap<CachedField> readTags = this.readTags;
-		for (int i = 0; i < fieldCount; i++) {
-			int tag = input.readVarInt(true);
-			CachedField cachedField = readTags.get(tag);
+		IntMap<CachedField> projected = projection != null ? project(projection) : null;
+		if (dense) {
+			int tagBase = input.readVarInt(true);
+			for (int index = 0; index < fieldCount; index += 8) {
+				for (int bits = input.readByte() & 0xff; bits != 0; bits &= bits - 1) {
+					readField(kryo, input, fieldInput, inputChunked, object, tagBase + index + Integer.numberOfTrailingZeros(bits),
+						projected);
+				}
+			}
+		} else {
+			for (int i = 0; i < fieldCount; i++)
+				readField(kryo, input, fieldInput, inputChunked, object, input.readVarInt(true), projected);
+		}
+
+		popTypeVariables(pop);
+		return object;
+	}
 
-			if (readUnknownTagData) {
-				Registration registration;
+	/** @param projected The fields to read by tag, or null to read all fields. */
+	private void readField (Kryo kryo, Input input, Input fieldInput, InputChunked inputChunked, T object, int tag,
+		IntMap<CachedField> projected) {
+		CachedField cachedField = getTagField(tag);
+		boolean skip = projected != null && cachedField != null && !projected.containsKey(tag);
+		boolean lengthPrefixed = config.lengthPrefixed, skippable = inputChunked != null || lengthPrefixed;
+		long end = lengthPrefixed ? input.readLength() : -1;
+
+		// Unknown data can be skipped without reading it if it can't define references or class names used by later data.
+		if ((cachedField == null || skip) && config.skipUnknownTagData && skippable && !kryo.getReferences()
+			&& kryo.isRegistrationRequired()) {
+			if (TRACE) trace("kryo", "Skip tag " + tag + " data.");
+			nextField(input, inputChunked, end);
+			return;
+		}
+
+		if (skip) {
+			// The field is known, so its data can be read past the same way it was written.
+			if (TRACE) trace("kryo", "Skip field: " + cachedField + pos(input.position()));
+			if (config.readUnknownTagData) {
+				Registration registration = kryo.readClass(fieldInput);
+				if (registration != null) skipValue(fieldInput, cachedField, registration);
+			} else
+				cachedField.skip(fieldInput);
+			nextField(input, inputChunked, end);
+			return;
+		}
+
+		if (config.readUnknownTagData) {
+			Registration registration;
+			try {
+				registration = kryo.readClass(fieldInput);
+			} catch (KryoException ex) {
+				String message = "Unable to read unknown tag " + tag + " data (unknown type). (" + getType().getName() + "#"
+					+ cachedField + ")";
+				if (!skippable) throw new KryoException(message, ex);
+				if (DEBUG) debug("kryo", message, ex);
+				nextField(input, inputChunked, end);
+				return;
+			}
+			if (registration == null) {
+				nextField(input, inputChunked, end);
+				return;
+			}
+			Class valueClass = registration.getType();
+			if (cachedField == null) {
+				// Skip unknown tag data. It is only created if it may be referenced.
+				if (TRACE) trace("kryo", "Read unknown tag " + tag + " data, type: " + className(valueClass));
 				try {
-					registration = kryo.readClass(fieldInput);
+					kryo.skipObject(fieldInput, valueClass);
 				} catch (KryoException ex) {
-					String message = "Unable to read unknown tag " + tag + " data (unknown type). (" + getType().getName() + "#"
-						+ cachedField + ")";
-					if (!chunked) throw new KryoException(message, ex);
+					String message = "Unable to read unknown tag " + tag + " data, type: " + className(valueClass) + " ("
+						+ getType().getName() + "#" + cachedField + ")";
+					if (!skippable) throw new KryoException(message, ex);
 					if (DEBUG) debug("kryo", message, ex);
-					inputChunked.nextChunk();
-					continue;
 				}
-				if (registration == null) {
-					if (chunked) inputChunked.nextChunk();
-					continue;
-				}
-				Class valueClass = registration.getType();
-				if (cachedField == null) {
-					// Read unknown tag data in case it is a reference.
-					if (TRACE) trace("kryo", "Read unknown tag " + tag + " data, type: " + className(valueClass));
-					try {
-						kryo.readObject(fieldInput, valueClass);
-					} catch (KryoException ex) {
-						String message = "Unable to read unknown tag " + tag + " data, type: " + className(valueClass) + " ("
-							+ getType().getName() + "#" + cachedField + ")";
-						if (!chunked) throw new KryoException(message, ex);
-						if (DEBUG) debug("kryo", message, ex);
-					}
-					if (chunked) inputChunked.nextChunk();
-					continue;
-				}
-				cachedField.setCanBeNull(false);
-				cachedField.setValueClass(valueClass);
-				cachedField.setReuseSerializer(false);
-			} else if (cachedField == null) {
-				if (!chunked) throw new KryoException("Unknown field tag: " + tag + " (" + getType().getName() + ")");
-				if (TRACE) trace("kryo", "Skip unknown field tag: " + tag);
-				inputChunked.nextChunk();
-				continue;
+				nextField(input, inputChunked, end);
+				return;
 			}
 
+			if (TRACE) log("Read", cachedField, input.position());
+			readValue(fieldInput, cachedField, object, registration);
+		} else if (cachedField == null) {
+			if (!skippable) throw new KryoException("Unknown field tag: " + tag + " (" + getType().getName() + ")");
+			if (TRACE) trace("kryo", "Skip unknown field tag: " + tag);
+		} else {
 			if (TRACE) log("Read", cachedField, input.position());
 			cachedField.read(fieldInput, object);
-			if (chunked) inputChunked.nextChunk();
 		}
+		nextField(input, inputChunked, end);
+	}
 
-		popTypeVariables(pop);
-		return object;
+	private void nextField (Input input, InputChunked inputChunked, long end) {
+		if (inputChunked != null)
+			inputChunked.nextChunk();
+		else if (end != -1) input.skipTo(end);
+	}
+
+	/** Returns the fields in the projection by tag. The result for the last projection is cached. */
+	private IntMap<CachedField> project (Projection projection) {
+		if (projection == projectedFor && readTags == projectedTags) return projected;
+		IntMap<CachedField> projected = new IntMap();
+		for (IntMap.Entry<CachedField> entry : readTags.entries())
+			if (projection.contains(entry.value.name)) projected.put(entry.key, entry.value);
+		projectedFor = projection;
+		projectedTags = readTags;
+		this.projected = projected;
+		return projected;
+	}
+
+	/** Returns the field for the tag, or null. Tags within a small range are looked up in an array rather than a map. */
+	private CachedField getTagField (int tag) {
+		CachedField[] tagTable = this.tagTable;
+		if (tagTable == null) return readTags.get(tag);
+		int index = tag - tagTableBase;
+		return index >= 0 && index < tagTable.length ? tagTable[index] : null;
 	}
 
 	public TaggedFieldSerializerConfig getTaggedFieldSerializerConfig () {
@@ -252,7 +386,7 @@ public class TaggedFieldSerializer<T> extends FieldSerializer<T> {
 
 	/** Configuration for TaggedFieldSerializer instances. */
 	public static class TaggedFieldSerializerConfig extends FieldSerializerConfig {
-		boolean readUnknownTagData, chunked;
+		boolean readUnknownTagData, chunked, lengthPrefixed, packedTags, skipUnknownTagData;
 		int chunkSize = 1024;
 
 		public TaggedFieldSerializerConfig clone () {
@@ -300,5 +434,50 @@ public class TaggedFieldSerializer<T> extends FieldSerializer<T> {
 		public int getChunkSize () {
 			return chunkSize;
 		}
+
+		/** When true, the number of bytes for each field is written before the field to allow unknown field data to be skipped.
+		 * The lengths are written after the field by {@link Output#endLength(int)}, so unlike {@link #setChunkedEncoding(boolean)
+		 * chunked encoding} no additional buffers are needed, though the buffer holds the whole object until it is written. When
+		 * true, chunked encoding is not used. Default is false.
+		 * @see #setReadUnknownTagData(boolean) */
+		public void setLengthPrefixedEncoding (boolean lengthPrefixed) {
+			this.lengthPrefixed = lengthPrefixed;
+			if (TRACE) trace("kryo", "TaggedFieldSerializerConfig setLengthPrefixed: " + lengthPrefixed);
+		}
+
+		public boolean getLengthPrefixedEncoding () {
+			return lengthPrefixed;
+		}
+
+		/** When true and {@link #setChunkedEncoding(boolean) chunked} or {@link #setLengthPrefixedEncoding(boolean) length
+		 * prefixed} encoding is used, the data for unknown tags and fields outside a {@link com.esotericsoftware.kryo.Projection}
+		 * is skipped without reading it. This is only done if {@link Kryo#setReferences(boolean) references} are disabled and
+		 * {@link Kryo#setRegistrationRequired(boolean) registration is required}.
+		 * <p>
+		 * This must not be used if the skipped data may contain objects whose serializers write data the first time a class is
+		 * encountered that later data depends on, eg a {@link CompatibleFieldSerializer} writes the field names the first time its
+		 * class is encountered. If that data is skipped, reading the next object of the class fails. When false, unknown data is
+		 * skipped as described in {@link #setReadUnknownTagData(boolean)}. Default is false. */
+		public void setSkipUnknownTagData (boolean skipUnknownTagData) {
+			this.skipUnknownTagData = skipUnknownTagData;
+			if (TRACE) trace("kryo", "TaggedFieldSerializerConfig setSkipUnknownTagData: " + skipUnknownTagData);
+		}
+
+		public boolean getSkipUnknownTagData () {
+			return skipUnknownTagData;
+		}
+
+		/** When true, the tags are written more compactly. If the tags written are dense, a bitmap of the tags present is written
+		 * and the fields follow in tag order, so the size approaches that of {@link FieldSerializer}. Otherwise a varint is written
+		 * before each field for the tag value, as when false. Both the writer and the reader must use the same setting. Default is
+		 * false. */
+		public void setPackedTags (boolean packedTags) {
+			this.packedTags = packedTags;
+			if (TRACE) trace("kryo", "TaggedFieldSerializerConfig setPackedTags: " + packedTags);
+		}
+
+		public boolean getPackedTags () {
+			return packedTags;
+		}
 	}
 }
@@ -90,6 +90,11 @@ public class UnmodifiableCollectionSerializers {
 			return (Collection)factory.apply(sourceCollection);
 		}
 
+		@Override
+		public void skip (Kryo kryo, Input input, Class<? extends Collection> type) {
+			kryo.skipClassAndObject(input);
+		}
+
 		@Override
 		public Collection copy (Kryo kryo, Collection original) {
 			final Object collection = UnsafeUtil.getObject(original, offset);
@@ -119,6 +124,11 @@ public class UnmodifiableCollectionSerializers {
 			return (Map)factory.apply(sourceMap);
 		}
 
+		@Override
+		public void skip (Kryo kryo, Input input, Class<? extends Map> type) {
+			kryo.skipClassAndObject(input);
+		}
+
 		@Override
 		public Map copy (Kryo kryo, Map original) {
 			final Object map = UnsafeUtil.getObject(original, offset);
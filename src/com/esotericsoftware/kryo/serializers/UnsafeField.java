@@ -155,6 +155,14 @@ class UnsafeField extends ReflectField {
 			unsafe.putBoolean(object, offset, input.readBoolean());
 		}
 
+		boolean getBoolean (Object object) {
+			return unsafe.getBoolean(object, offset);
+		}
+
+		void setBoolean (Object object, boolean value) {
+			unsafe.putBoolean(object, offset, value);
+		}
+
 		public void copy (Object original, Object copy) {
 			unsafe.putBoolean(copy, offset, unsafe.getBoolean(original, offset));
 		}
@@ -229,10 +237,22 @@ class UnsafeField extends ReflectField {
 			offset = unsafe.objectFieldOffset(field);
 		}
 
+		Object get (Object object) {
+			return unsafe.getObject(object, offset);
+		}
+
+		void set (Object object, Object value) {
+			unsafe.putObject(object, offset, value);
+		}
+
 		public void write (Output output, Object object) {
 			output.writeString((String)unsafe.getObject(object, offset));
 		}
 
+		void writeNotNull (Output output, Object object, Object value) {
+			output.writeString((String)value);
+		}
+
 		public void read (Input input, Object object) {
 			unsafe.putObject(object, offset, input.readString());
 		}
@@ -0,0 +1,509 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.serializers;
+
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.FieldSerializer.CachedField;
+import com.esotericsoftware.kryo.util.Generics.GenericType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.invoke.VarHandle.AccessMode;
+import java.lang.reflect.Field;
+
+/** Read and write a non-primitive field using a VarHandle. The VarHandle is obtained with a private lookup in the field's declaring
+ * class, so it can be used for non-public classes and fields when the package is open to Kryo. The get and set access modes are
+ * adapted to method handles with erased types so they can be invoked exactly. Requires Java 9 or later.
+ * <p>
+ * The method handles are instance fields, so the JIT does not treat them as constants and can't inline through them as it would
+ * for a static final handle. Field access is faster than reflection but is not as fast as Unsafe, though for typical objects the
+ * difference is small compared to the cost of encoding the values. */
+class VarHandleField extends ReflectField {
+	private final MethodHandle getter, setter;
+
+	public VarHandleField (Field field, FieldSerializer serializer, GenericType genericType) throws IllegalAccessException {
+		super(field, serializer, genericType);
+		VarHandle handle = varHandle(field);
+		getter = getter(handle, Object.class);
+		setter = setter(handle, Object.class);
+	}
+
+	public Object get (Object object) throws IllegalAccessException {
+		try {
+			return (Object)getter.invokeExact(object);
+		} catch (RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable t) {
+			throw new KryoException(t);
+		}
+	}
+
+	public void set (Object object, Object value) throws IllegalAccessException {
+		try {
+			setter.invokeExact(object, value);
+		} catch (RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable t) {
+			throw new KryoException(t);
+		}
+	}
+
+	static VarHandle varHandle (Field field) throws IllegalAccessException {
+		return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+	}
+
+	static MethodHandle getter (VarHandle handle, Class type) {
+		return handle.toMethodHandle(AccessMode.GET).asType(MethodType.methodType(type, Object.class));
+	}
+
+	static MethodHandle setter (VarHandle handle, Class type) {
+		return handle.toMethodHandle(AccessMode.SET).asType(MethodType.methodType(void.class, Object.class, type));
+	}
+
+	static final class IntVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public IntVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, int.class);
+			setter = setter(handle, int.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				if (varEncoding)
+					output.writeVarInt((int)getter.invokeExact(object), false);
+				else
+					output.writeInt((int)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (int)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				if (varEncoding)
+					setter.invokeExact(object, input.readVarInt(false));
+				else
+					setter.invokeExact(object, input.readInt());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (int)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (int)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (int)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class FloatVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public FloatVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, float.class);
+			setter = setter(handle, float.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				output.writeFloat((float)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (float)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				setter.invokeExact(object, input.readFloat());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (float)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (float)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (float)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class ShortVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public ShortVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, short.class);
+			setter = setter(handle, short.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				output.writeShort((short)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (short)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				setter.invokeExact(object, input.readShort());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (short)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (short)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (short)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class ByteVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public ByteVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, byte.class);
+			setter = setter(handle, byte.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				output.writeByte((byte)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (byte)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				setter.invokeExact(object, input.readByte());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (byte)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (byte)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (byte)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class BooleanVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public BooleanVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, boolean.class);
+			setter = setter(handle, boolean.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				output.writeBoolean((boolean)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (boolean)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				setter.invokeExact(object, input.readBoolean());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (boolean)");
+				throw ex;
+			}
+		}
+
+		boolean getBoolean (Object object) {
+			try {
+				return (boolean)getter.invokeExact(object);
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (boolean)");
+				throw ex;
+			}
+		}
+
+		void setBoolean (Object object, boolean value) {
+			try {
+				setter.invokeExact(object, value);
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (boolean)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (boolean)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (boolean)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class CharVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public CharVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, char.class);
+			setter = setter(handle, char.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				output.writeChar((char)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (char)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				setter.invokeExact(object, input.readChar());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (char)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (char)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (char)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class LongVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public LongVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, long.class);
+			setter = setter(handle, long.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				if (varEncoding)
+					output.writeVarLong((long)getter.invokeExact(object), false);
+				else
+					output.writeLong((long)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (long)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				if (varEncoding)
+					setter.invokeExact(object, input.readVarLong(false));
+				else
+					setter.invokeExact(object, input.readLong());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (long)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (long)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (long)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class DoubleVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public DoubleVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, double.class);
+			setter = setter(handle, double.class);
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				output.writeDouble((double)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (double)");
+				throw ex;
+			}
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				setter.invokeExact(object, input.readDouble());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (double)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (double)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (double)");
+				throw ex;
+			}
+		}
+	}
+
+	static final class StringVarHandleField extends CachedField {
+		private final MethodHandle getter, setter;
+
+		public StringVarHandleField (Field field) throws IllegalAccessException {
+			super(field);
+			VarHandle handle = varHandle(field);
+			getter = getter(handle, String.class);
+			setter = setter(handle, String.class);
+		}
+
+		Object get (Object object) {
+			try {
+				return (String)getter.invokeExact(object);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable t) {
+				throw new KryoException(t);
+			}
+		}
+
+		void set (Object object, Object value) {
+			try {
+				setter.invokeExact(object, (String)value);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable t) {
+				throw new KryoException(t);
+			}
+		}
+
+		public void write (Output output, Object object) {
+			try {
+				output.writeString((String)getter.invokeExact(object));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (String)");
+				throw ex;
+			}
+		}
+
+		void writeNotNull (Output output, Object object, Object value) {
+			output.writeString((String)value);
+		}
+
+		public void read (Input input, Object object) {
+			try {
+				setter.invokeExact(object, input.readString());
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (String)");
+				throw ex;
+			}
+		}
+
+		public void copy (Object original, Object copy) {
+			try {
+				setter.invokeExact(copy, (String)getter.invokeExact(original));
+			} catch (Throwable t) {
+				KryoException ex = new KryoException(t);
+				ex.addTrace(name + " (String)");
+				throw ex;
+			}
+		}
+	}
+}
@@ -32,6 +32,8 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 /** Serializes objects using direct field assignment, providing backward compatibility with minimal overhead. This means fields
  * can be added without invalidating previously serialized bytes. Removing, renaming, or changing the type of a field is not
@@ -43,11 +45,18 @@ import java.lang.reflect.Field;
  * Compared to {@link FieldSerializer}, VersionFieldSerializer writes a single additional varint and requires annotations for
  * added fields, but provides backward compatibility so fields can be added. {@link TaggedFieldSerializer} provides more
  * flexibility for classes to evolve in exchange for a slightly larger serialized size.
+ * <p>
+ * If {@link VersionFieldSerializerConfig#setForwardCompatible(boolean)} is true, fields added in a newer version can also be
+ * skipped by older readers.
  * @author Nathan Sweet */
 public class VersionFieldSerializer<T> extends FieldSerializer<T> {
 	private final VersionFieldSerializerConfig config;
 	private int typeVersion; // Version of the type being serialized.
 	private int[] fieldVersion; // Version of each field.
+	private int[] versions; // Each distinct field version, ascending.
+	private CachedField[][] versionFields; // Fields present in each version, in field order.
+	private CachedField[] versionOrder; // Fields sorted by version.
+	private int baseCount; // Number of fields without a version.
 
 	public VersionFieldSerializer (Kryo kryo, Class type) {
 		this(kryo, type, new VersionFieldSerializerConfig());
@@ -64,6 +73,7 @@ public class VersionFieldSerializer<T> extends FieldSerializer<T> {
 	protected void initializeCachedFields () {
 		CachedField[] fields = cachedFields.fields;
 		fieldVersion = new int[fields.length];
+		typeVersion = 0;
 		for (int i = 0, n = fields.length; i < n; i++) {
 			Field field = fields[i].field;
 			Since since = field.getAnnotation(Since.class);
@@ -76,6 +86,44 @@ public class VersionFieldSerializer<T> extends FieldSerializer<T> {
 			}
 		}
 		if (DEBUG) debug("Version for type " + getType().getName() + ": " + typeVersion);
+
+		// Precompute the fields present in each version so reading doesn't check the version of every field.
+		int[] versions = fieldVersion.clone();
+		Arrays.sort(versions);
+		int count = 0;
+		for (int i = 0, n = versions.length; i < n; i++)
+			if (i == 0 || versions[i] != versions[count - 1]) versions[count++] = versions[i];
+		this.versions = Arrays.copyOf(versions, count);
+		versionFields = new CachedField[count][];
+		ArrayList<CachedField> present = new ArrayList(fields.length);
+		for (int v = 0; v < count; v++) {
+			present.clear();
+			for (int i = 0, n = fields.length; i < n; i++)
+				if (fieldVersion[i] <= versions[v]) present.add(fields[i]);
+			versionFields[v] = present.toArray(new CachedField[present.size()]);
+		}
+
+		// Fields sorted by version, so the fields of any version are a prefix.
+		versionOrder = new CachedField[fields.length];
+		int index = 0;
+		baseCount = 0;
+		for (int v = 0; v < count; v++) {
+			for (int i = 0, n = fields.length; i < n; i++) {
+				if (fieldVersion[i] != versions[v]) continue;
+				versionOrder[index++] = fields[i];
+				if (fieldVersion[i] <= 0) baseCount++;
+			}
+		}
+	}
+
+	/** Returns the fields present in the specified version. */
+	private CachedField[] getFields (int version) {
+		int[] versions = this.versions;
+		int n = versions.length;
+		if (n == 0 || version >= versions[n - 1]) return cachedFields.fields;
+		int index = Arrays.binarySearch(versions, version);
+		if (index < 0) index = -index - 2; // The newest version older than the specified version.
+		return index < 0 ? new CachedField[0] : versionFields[index];
 	}
 
 	public void removeField (String fieldName) {
@@ -96,13 +144,31 @@ public class VersionFieldSerializer<T> extends FieldSerializer<T> {
 
 		int pop = pushTypeVariables();
 
-		CachedField[] fields = cachedFields.fields;
 		// Write type version.
 		output.writeVarInt(typeVersion + 1, true);
 		// Write fields.
-		for (int i = 0, n = fields.length; i < n; i++) {
-			if (TRACE) log("Write", fields[i], output.position());
-			fields[i].write(output, object);
+		if (config.forwardCompatible) {
+			// Fields added in a newer version are written after a length, so older readers can skip them.
+			CachedField[] fields = versionOrder;
+			int baseCount = this.baseCount;
+			for (int i = 0; i < baseCount; i++) {
+				if (TRACE) log("Write", fields[i], output.position());
+				fields[i].write(output, object);
+			}
+			if (typeVersion > 0) {
+				int start = output.beginLength();
+				for (int i = baseCount, n = fields.length; i < n; i++) {
+					if (TRACE) log("Write", fields[i], output.position());
+					fields[i].write(output, object);
+				}
+				output.endLength(start);
+			}
+		} else {
+			CachedField[] fields = cachedFields.fields;
+			for (int i = 0, n = fields.length; i < n; i++) {
+				if (TRACE) log("Write", fields[i], output.position());
+				fields[i].write(output, object);
+			}
 		}
 
 		popTypeVariables(pop);
@@ -120,15 +186,30 @@ public class VersionFieldSerializer<T> extends FieldSerializer<T> {
 		T object = create(kryo, input, type);
 		kryo.reference(object);
 
-		CachedField[] fields = cachedFields.fields;
-		for (int i = 0, n = fields.length; i < n; i++) {
-			// Field is not present in input, skip it.
-			if (fieldVersion[i] > version) {
-				if (DEBUG) debug("Skip field: " + fields[i].field.getName());
-				continue;
+		// Fields not present in the input are not read.
+		CachedField[] fields = getFields(version);
+		if (config.forwardCompatible) {
+			CachedField[] versionOrder = this.versionOrder;
+			int i = 0, n = fields.length, baseCount = Math.min(this.baseCount, n);
+			for (; i < baseCount; i++) {
+				if (TRACE) log("Read", versionOrder[i], input.position());
+				versionOrder[i].read(input, object);
+			}
+			if (version > 0) {
+				long end = input.readLength();
+				for (; i < n; i++) {
+					if (TRACE) log("Read", versionOrder[i], input.position());
+					versionOrder[i].read(input, object);
+				}
+				// Skip fields from a newer version.
+				if (TRACE && input.total() < end) trace("kryo", "Skip newer fields: " + getType().getName());
+				input.skipTo(end);
+			}
+		} else {
+			for (int i = 0, n = fields.length; i < n; i++) {
+				if (TRACE) log("Read", fields[i], input.position());
+				fields[i].read(input, object);
 			}
-			if (TRACE) log("Read", fields[i], input.position());
-			fields[i].read(input, object);
 		}
 
 		popTypeVariables(pop);
@@ -149,7 +230,7 @@ public class VersionFieldSerializer<T> extends FieldSerializer<T> {
 
 	/** Configuration for VersionFieldSerializer instances. */
 	public static class VersionFieldSerializerConfig extends FieldSerializerConfig {
-		boolean compatible = true;
+		boolean compatible = true, forwardCompatible;
 
 		public VersionFieldSerializerConfig clone () {
 			return (VersionFieldSerializerConfig)super.clone(); // Clone is ok as we have only primitive fields.
@@ -165,5 +246,17 @@ public class VersionFieldSerializer<T> extends FieldSerializer<T> {
 		public boolean getCompatible () {
 			return compatible;
 		}
+
+		/** When true, fields added in a newer version are written after the number of bytes they use, so an older reader can skip
+		 * them. Fields are written in order of their version. This costs 4 bytes per object when the type has fields with a
+		 * {@link Since} version greater than 0. Both the writer and the reader must use the same setting. Default is false. */
+		public void setForwardCompatible (boolean forwardCompatible) {
+			this.forwardCompatible = forwardCompatible;
+			if (TRACE) trace("kryo", "VersionFieldSerializerConfig setForwardCompatible: " + forwardCompatible);
+		}
+
+		public boolean getForwardCompatible () {
+			return forwardCompatible;
+		}
 	}
 }
@@ -0,0 +1,122 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.ReferenceResolver;
+
+import java.util.Arrays;
+
+/** Tracks objects that have already been written using a linear search, like {@link ListReferenceResolver}, until a graph has
+ * more than a threshold number of objects. The written objects are then also put in an {@link EpochIdentityObjectIntMap}, like
+ * {@link MapReferenceResolver}, for the rest of that graph. This gives good performance for both small and large graphs. After
+ * warm up, no allocation is done unless a graph is larger than any before it.
+ * <p>
+ * The same array holds the written or read objects, so reading never needs a hash lookup. */
+public class AdaptiveReferenceResolver implements ReferenceResolver {
+	static private final int DEFAULT_THRESHOLD = 32;
+	static private final int DEFAULT_CAPACITY = 2048;
+
+	protected Kryo kryo;
+	protected Object[] objects = new Object[16];
+	protected int size;
+	protected EpochIdentityObjectIntMap<Object> writtenObjects;
+	private boolean useMap;
+	private final int threshold, maximumCapacity;
+
+	/** Creates a reference resolver with a default threshold of 32 and maximum capacity of 2048. */
+	public AdaptiveReferenceResolver () {
+		this(DEFAULT_THRESHOLD, DEFAULT_CAPACITY);
+	}
+
+	/** @param threshold the number of written objects in a graph after which a map is used to find objects that have already been
+	 *           written.
+	 * @param maximumCapacity the capacity to trim written and read objects to when {@link #reset()} is called */
+	public AdaptiveReferenceResolver (int threshold, int maximumCapacity) {
+		if (threshold < 0) throw new IllegalArgumentException("threshold must be >= 0: " + threshold);
+		this.threshold = threshold;
+		this.maximumCapacity = maximumCapacity;
+	}
+
+	public void setKryo (Kryo kryo) {
+		this.kryo = kryo;
+	}
+
+	public int addWrittenObject (Object object) {
+		int id = add(object);
+		if (useMap)
+			writtenObjects.put(object, id);
+		else if (size > threshold) {
+			// The graph is large, switch to the map.
+			if (writtenObjects == null) writtenObjects = new EpochIdentityObjectIntMap<>();
+			Object[] objects = this.objects;
+			for (int i = 0, n = size; i < n; i++)
+				writtenObjects.put(objects[i], i);
+			useMap = true;
+		}
+		return id;
+	}
+
+	public int getWrittenId (Object object) {
+		if (useMap) return writtenObjects.get(object, -1);
+		Object[] objects = this.objects;
+		for (int i = 0, n = size; i < n; i++)
+			if (objects[i] == object) return i;
+		return -1;
+	}
+
+	public int nextReadId (Class type) {
+		return add(null);
+	}
+
+	public void setReadObject (int id, Object object) {
+		objects[id] = object;
+	}
+
+	public Object getReadObject (Class type, int id) {
+		return objects[id];
+	}
+
+	private int add (Object object) {
+		int id = size;
+		if (id == objects.length) objects = Arrays.copyOf(objects, Math.max(16, id << 1));
+		objects[id] = object;
+		size = id + 1;
+		return id;
+	}
+
+	public void reset () {
+		if (objects.length > maximumCapacity)
+			objects = new Object[maximumCapacity];
+		else
+			Arrays.fill(objects, 0, size, null);
+		size = 0;
+		if (useMap) {
+			writtenObjects.clear(maximumCapacity);
+			useMap = false;
+		}
+	}
+
+	/** Returns false for all primitive wrappers and enums. */
+	public boolean useReferences (Class type) {
+		return !Util.isWrapperClass(type) && !Util.isEnum(type);
+	}
+}
@@ -0,0 +1,105 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.ReferenceResolver;
+
+import java.util.Arrays;
+
+/** Tracks only the objects currently being serialized, ie the ancestors of the object being written or read. A reference to an
+ * ancestor (a cycle) is written as a reference ID, but an object that is referenced more than once without being its own ancestor
+ * is written each time it is encountered, like when references are disabled, and is deserialized as separate objects.
+ * <p>
+ * This makes it safe to serialize graphs with cycles, with overhead close to disabling references: no identity hashing is done and
+ * only the objects on the current path from the root are searched. This is appropriate for trees with back pointers, such as
+ * parent references, where sharing does not need to be preserved.
+ * <p>
+ * Reference IDs are positions on the stack of ancestors, so the writing and reading Kryo instances must both use this resolver. */
+public class CycleReferenceResolver implements ReferenceResolver {
+	protected Kryo kryo;
+	protected Object[] objects = new Object[16];
+	protected int[] depths = new int[16];
+	protected int size;
+
+	public void setKryo (Kryo kryo) {
+		this.kryo = kryo;
+	}
+
+	public int addWrittenObject (Object object) {
+		return push(object);
+	}
+
+	public int getWrittenId (Object object) {
+		pop();
+		Object[] objects = this.objects;
+		for (int i = size - 1; i >= 0; i--)
+			if (objects[i] == object) return i;
+		return -1;
+	}
+
+	public int nextReadId (Class type) {
+		return push(null);
+	}
+
+	public void setReadObject (int id, Object object) {
+		objects[id] = object;
+	}
+
+	public Object getReadObject (Class type, int id) {
+		pop();
+		if (id >= size) throw new IndexOutOfBoundsException("Reference ID is not an ancestor: " + id);
+		return objects[id];
+	}
+
+	/** Removes the objects that are no longer ancestors, those at the current depth or deeper. */
+	private void pop () {
+		int depth = kryo.getDepth();
+		int[] depths = this.depths;
+		int size = this.size;
+		while (size > 0 && depths[size - 1] >= depth)
+			objects[--size] = null;
+		this.size = size;
+	}
+
+	private int push (Object object) {
+		pop();
+		int id = size;
+		if (id == objects.length) {
+			objects = Arrays.copyOf(objects, id << 1);
+			depths = Arrays.copyOf(depths, id << 1);
+		}
+		objects[id] = object;
+		depths[id] = kryo.getDepth();
+		size = id + 1;
+		return id;
+	}
+
+	public void reset () {
+		Arrays.fill(objects, 0, size, null);
+		size = 0;
+	}
+
+	/** Returns false for all primitive wrappers and enums. */
+	public boolean useReferences (Class type) {
+		return !Util.isWrapperClass(type) && !Util.isEnum(type);
+	}
+}
@@ -29,11 +29,17 @@ import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
+import java.util.Arrays;
+
 /** Resolves classes by ID or by fully qualified class name.
  * @author Nathan Sweet */
 public class DefaultClassResolver implements ClassResolver {
 	public static final byte NAME = -1;
 
+	/** Class IDs below this value are also stored in an array, so reading a class ID doesn't need a hash lookup. */
+	static private final int maxDenseId = 4096;
+	static private final int memoizedClassCount = 8;
+
 	protected Kryo kryo;
 
 	protected final IntMap<Registration> idToRegistration = new IntMap<>();
@@ -44,25 +50,34 @@ public class DefaultClassResolver implements ClassResolver {
 	protected ObjectMap<String, Class> nameToClass;
 	protected int nextNameId;
 
-	private int memoizedClassId = -1;
-	private Registration memoizedClassIdValue;
-	private Class memoizedClass;
-	private Registration memoizedClassValue;
+	private Registration[] denseIdToRegistration = new Registration[32];
+
+	// Small cache of the most recently looked up classes, since graphs often alternate between a few types.
+	private final Class[] memoizedClasses = new Class[memoizedClassCount];
+	private final Registration[] memoizedClassValues = new Registration[memoizedClassCount];
+	private int memoizedClassIndex;
 
 	public void setKryo (Kryo kryo) {
 		this.kryo = kryo;
 	}
 
 	public Registration register (Registration registration) {
-		memoizedClassId = -1;
-		memoizedClass = null;
 		if (registration == null) throw new IllegalArgumentException("registration cannot be null.");
-		if (registration.getId() != NAME) {
+		clearMemoizedClasses();
+		int id = registration.getId();
+		if (id != NAME) {
 			if (TRACE) {
-				trace("kryo", "Register class ID " + registration.getId() + ": " + className(registration.getType()) + " ("
+				trace("kryo", "Register class ID " + id + ": " + className(registration.getType()) + " ("
 					+ registration.getSerializer().getClass().getName() + ")");
 			}
-			idToRegistration.put(registration.getId(), registration);
+			idToRegistration.put(id, registration);
+			if (id >= 0 && id < maxDenseId) {
+				if (id >= denseIdToRegistration.length) {
+					int capacity = Math.min(maxDenseId, Math.max(id + 1, denseIdToRegistration.length << 1));
+					denseIdToRegistration = Arrays.copyOf(denseIdToRegistration, capacity);
+				}
+				denseIdToRegistration[id] = registration;
+			}
 		} else if (TRACE) {
 			trace("kryo", "Register class name: " + className(registration.getType()) + " ("
 				+ registration.getSerializer().getClass().getName() + ")");
@@ -77,8 +92,8 @@ public class DefaultClassResolver implements ClassResolver {
 		Registration registration = idToRegistration.remove(classID);
 		if (registration != null) {
 			classToRegistration.remove(registration.getType());
-			memoizedClassId = -1;
-			memoizedClass = null;
+			clearMemoizedClasses();
+			if (classID >= 0 && classID < denseIdToRegistration.length) denseIdToRegistration[classID] = null;
 			Class wrapperClass = getWrapperClass(registration.getType());
 			if (wrapperClass != registration.getType()) classToRegistration.remove(wrapperClass);
 		}
@@ -90,19 +105,33 @@ public class DefaultClassResolver implements ClassResolver {
 	}
 
 	public Registration getRegistration (Class type) {
-		if (type == memoizedClass) return memoizedClassValue;
+		Class[] memoizedClasses = this.memoizedClasses;
+		for (int i = 0; i < memoizedClassCount; i++)
+			if (memoizedClasses[i] == type) return memoizedClassValues[i];
 		Registration registration = classToRegistration.get(type);
 		if (registration != null) {
-			memoizedClass = type;
-			memoizedClassValue = registration;
+			int index = memoizedClassIndex;
+			memoizedClasses[index] = type;
+			memoizedClassValues[index] = registration;
+			memoizedClassIndex = (index + 1) & (memoizedClassCount - 1);
 		}
 		return registration;
 	}
 
 	public Registration getRegistration (int classID) {
+		Registration[] denseIdToRegistration = this.denseIdToRegistration;
+		if (classID >= 0 && classID < denseIdToRegistration.length) {
+			Registration registration = denseIdToRegistration[classID];
+			if (registration != null) return registration;
+		}
 		return idToRegistration.get(classID);
 	}
 
+	private void clearMemoizedClasses () {
+		Arrays.fill(memoizedClasses, null);
+		Arrays.fill(memoizedClassValues, null);
+	}
+
 	public Registration writeClass (Output output, Class type) {
 		if (type == null) {
 			if (TRACE || (DEBUG && kryo.getDepth() == 1)) log("Write", null, output.position());
@@ -132,9 +161,14 @@ public class DefaultClassResolver implements ClassResolver {
 		// Only write the class name the first time encountered in object graph.
 		if (TRACE) trace("kryo", "Write class name: " + className(type) + pos(output.position()));
 		int nameId = nextNameId++;
-		if (classToNameId == null) classToNameId = new IdentityObjectIntMap<>();
+		if (classToNameId == null) classToNameId = new EpochIdentityObjectIntMap<>();
 		classToNameId.put(type, nameId);
 		output.writeVarInt(nameId, true);
+		writeClassName(output, type, registration);
+	}
+
+	/** Writes the name of a class the first time it is encountered. */
+	protected void writeClassName (Output output, Class type, Registration registration) {
 		if (registration.isTypeNameAscii())
 			output.writeAscii(type.getName());
 		else
@@ -150,16 +184,9 @@ public class DefaultClassResolver implements ClassResolver {
 		case NAME + 2: // Offset for NAME and NULL.
 			return readName(input);
 		}
-		if (classID == memoizedClassId) {
-			if (TRACE) trace("kryo",
-				"Read class " + (classID - 2) + ": " + className(memoizedClassIdValue.getType()) + pos(input.position()));
-			return memoizedClassIdValue;
-		}
-		Registration registration = idToRegistration.get(classID - 2);
+		Registration registration = getRegistration(classID - 2);
 		if (registration == null) throw new KryoException("Encountered unregistered class ID: " + (classID - 2));
 		if (TRACE) trace("kryo", "Read class " + (classID - 2) + ": " + className(registration.getType()) + pos(input.position()));
-		memoizedClassId = classID;
-		memoizedClassIdValue = registration;
 		return registration;
 	}
 
@@ -169,7 +196,7 @@ public class DefaultClassResolver implements ClassResolver {
 		Class type = nameIdToClass.get(nameId);
 		if (type == null) {
 			// Only read the class name the first time encountered in object graph.
-			String className = input.readString();
+			String className = readClassName(input);
 			type = getTypeByName(className);
 			if (type == null) {
 				try {
@@ -193,6 +220,11 @@ public class DefaultClassResolver implements ClassResolver {
 		return kryo.getRegistration(type);
 	}
 
+	/** Reads a class name written by {@link #writeClassName(Output, Class, Registration)}. */
+	protected String readClassName (Input input) {
+		return input.readString();
+	}
+
 	protected Class getTypeByName (final String className) {
 		return nameToClass != null ? nameToClass.get(className) : null;
 	}
@@ -24,8 +24,14 @@ import static com.esotericsoftware.kryo.util.Util.*;
 import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.reflectasm.ConstructorAccess;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
 
 import org.objenesis.instantiator.ObjectInstantiator;
 import org.objenesis.strategy.InstantiatorStrategy;
@@ -72,6 +78,23 @@ public class DefaultInstantiatorStrategy implements org.objenesis.strategy.Insta
 			}
 		}
 
+		// LambdaMetafactory, if the package is open to Kryo (Java 9+).
+		if (!Util.isAndroid) {
+			try {
+				final Supplier supplier = newSupplier(type);
+				return new ObjectInstantiator() {
+					public Object newInstance () {
+						try {
+							return supplier.get();
+						} catch (Exception | InstantiationError ex) {
+							throw createInstantiationError(type, ex);
+						}
+					}
+				};
+			} catch (Throwable ignored) {
+			}
+		}
+
 		// Reflection.
 		try {
 			Constructor ctor;
@@ -124,6 +147,15 @@ public class DefaultInstantiatorStrategy implements org.objenesis.strategy.Insta
 		return fallbackStrategy.newInstantiatorOf(type);
 	}
 
+	/** Returns a supplier that calls the no-arg constructor of the specified type directly, avoiding the overhead of
+	 * {@link Constructor#newInstance(Object...)}. */
+	private Supplier newSupplier (Class type) throws Throwable {
+		Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+		MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+		return (Supplier)LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+			MethodType.methodType(Object.class), constructor, MethodType.methodType(type)).getTarget().invokeExact();
+	}
+
 	KryoException createInstantiationError (Class type, Throwable throwable) {
 		StringBuilder message = new StringBuilder("Error constructing instance of class: " + className(type));
 		// Note: For Array and Primitive types the abstract bit is always set.
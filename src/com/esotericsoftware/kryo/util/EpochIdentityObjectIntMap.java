@@ -0,0 +1,218 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static com.esotericsoftware.kryo.util.ObjectMap.*;
+
+import java.util.Arrays;
+
+/** An {@link IdentityObjectIntMap} that can be cleared in constant time. Each slot is stamped with the epoch in which it was
+ * written and clearing only increments the current epoch, so slots from previous epochs are treated as empty without visiting the
+ * whole table. This is useful when the map is cleared often, eg after each object graph, and a large graph has grown the table.
+ * <p>
+ * Keys from previous epochs are not nulled until they are overwritten, so they remain strongly reachable until then. Use
+ * {@link #clear(int)} to bound the capacity, and so the number of keys that can be retained. */
+public class EpochIdentityObjectIntMap<K> extends IdentityObjectIntMap<K> {
+	private int[] stamps;
+	private int epoch;
+
+	/** Creates a new map with an initial capacity of 51 and a load factor of 0.8. */
+	public EpochIdentityObjectIntMap () {
+		super();
+		stamps = new int[keyTable.length];
+	}
+
+	/** Creates a new map with a load factor of 0.8.
+	 * @param initialCapacity If not a power of two, it is increased to the next nearest power of two. */
+	public EpochIdentityObjectIntMap (int initialCapacity) {
+		super(initialCapacity);
+		stamps = new int[keyTable.length];
+	}
+
+	/** Creates a new map with the specified initial capacity and load factor. This map will hold initialCapacity items before
+	 * growing the backing table.
+	 * @param initialCapacity If not a power of two, it is increased to the next nearest power of two. */
+	public EpochIdentityObjectIntMap (int initialCapacity, float loadFactor) {
+		super(initialCapacity, loadFactor);
+		stamps = new int[keyTable.length];
+	}
+
+	public int get (K key, int defaultValue) {
+		K[] keyTable = this.keyTable;
+		int[] stamps = this.stamps;
+		int epoch = this.epoch;
+		for (int i = place(key);; i = i + 1 & mask) {
+			K other = keyTable[i];
+			if (other == null || stamps[i] != epoch) return defaultValue;
+			if (other == key) return valueTable[i];
+		}
+	}
+
+	int locateKey (K key) {
+		if (key == null) throw new IllegalArgumentException("key cannot be null.");
+		K[] keyTable = this.keyTable;
+		int[] stamps = this.stamps;
+		int epoch = this.epoch;
+		for (int i = place(key);; i = i + 1 & mask) {
+			K other = keyTable[i];
+			if (other == null || stamps[i] != epoch) return -(i + 1); // Empty space is available.
+			if (other == key) return i; // Same key was found.
+		}
+	}
+
+	public void put (K key, int value) {
+		int i = locateKey(key);
+		if (i >= 0) { // Existing key was found.
+			valueTable[i] = value;
+			return;
+		}
+		i = -(i + 1); // Empty space was found.
+		keyTable[i] = key;
+		valueTable[i] = value;
+		stamps[i] = epoch;
+		if (++size >= threshold) resizeStamped(keyTable.length << 1);
+	}
+
+	public int getAndIncrement (K key, int defaultValue, int increment) {
+		int i = locateKey(key);
+		if (i >= 0) { // Existing key was found.
+			int oldValue = valueTable[i];
+			valueTable[i] += increment;
+			return oldValue;
+		}
+		i = -(i + 1); // Empty space was found.
+		keyTable[i] = key;
+		valueTable[i] = defaultValue + increment;
+		stamps[i] = epoch;
+		if (++size >= threshold) resizeStamped(keyTable.length << 1);
+		return defaultValue;
+	}
+
+	public int remove (K key, int defaultValue) {
+		purgeStale();
+		return super.remove(key, defaultValue);
+	}
+
+	public void shrink (int maximumCapacity) {
+		purgeStale();
+		super.shrink(maximumCapacity);
+		syncStamps();
+	}
+
+	/** Clears the map and reduces the size of the backing arrays to be the specified capacity / loadFactor, if they are larger.
+	 * If they are not larger, this takes constant time. */
+	public void clear (int maximumCapacity) {
+		if (keyTable.length <= tableSize(maximumCapacity, loadFactor)) {
+			clear();
+			return;
+		}
+		super.clear(maximumCapacity);
+		syncStamps();
+	}
+
+	/** Clears the map in constant time by starting a new epoch. */
+	public void clear () {
+		if (size == 0) return;
+		size = 0;
+		if (++epoch == 0) { // Wrapped, stamps from an old epoch could match.
+			Arrays.fill(keyTable, null);
+			Arrays.fill(stamps, 0);
+		}
+	}
+
+	public boolean containsValue (int value) {
+		purgeStale();
+		return super.containsValue(value);
+	}
+
+	public K findKey (int value) {
+		purgeStale();
+		return super.findKey(value);
+	}
+
+	public void ensureCapacity (int additionalCapacity) {
+		purgeStale();
+		super.ensureCapacity(additionalCapacity);
+		syncStamps();
+	}
+
+	public int hashCode () {
+		purgeStale();
+		return super.hashCode();
+	}
+
+	public boolean equals (Object obj) {
+		purgeStale();
+		return super.equals(obj);
+	}
+
+	public String toString (String separator) {
+		purgeStale();
+		return super.toString(separator);
+	}
+
+	public String toString () {
+		purgeStale();
+		return super.toString();
+	}
+
+	public Entries<K> entries () {
+		purgeStale();
+		return super.entries();
+	}
+
+	public Values values () {
+		purgeStale();
+		return super.values();
+	}
+
+	public Keys<K> keys () {
+		purgeStale();
+		return super.keys();
+	}
+
+	private void resizeStamped (int newSize) {
+		purgeStale();
+		resize(newSize);
+		syncStamps();
+	}
+
+	/** Nulls the keys from previous epochs, so methods that treat any non-null key as present can be used. */
+	private void purgeStale () {
+		K[] keyTable = this.keyTable;
+		int[] stamps = this.stamps;
+		int epoch = this.epoch;
+		for (int i = 0, n = keyTable.length; i < n; i++) {
+			if (stamps[i] != epoch) {
+				keyTable[i] = null;
+				stamps[i] = epoch;
+			}
+		}
+	}
+
+	/** Creates new stamps if the backing arrays were replaced. All keys are then from the current epoch. */
+	private void syncStamps () {
+		if (stamps.length != keyTable.length) {
+			stamps = new int[keyTable.length];
+			epoch = 0;
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static com.esotericsoftware.kryo.util.Util.*;
+import static com.esotericsoftware.minlog.Log.*;
+
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/** A class resolver that automatically registers classes in the configured packages (and their subpackages) using an ID derived
+ * from a hash of the class name. The IDs are stable, so the writing and reading Kryo instances don't need to register classes in
+ * the same order, yet no class names are written. Classes not in a configured package are handled by {@link DefaultClassResolver}.
+ * <p>
+ * Hashed IDs are between {@link #minHashId} and {@link #maxHashId}, which are written using 4 bytes. Classes registered explicitly
+ * must use lower IDs. If two classes hash to the same ID a KryoException is thrown when the second class is registered, and one of
+ * the classes must then be registered explicitly.
+ * <p>
+ * Proxies, enum values with a body, closures, and synthetic or hidden classes are not given hashed IDs. Kryo registers them using
+ * {@link java.lang.reflect.InvocationHandler}, the enum, or {@link com.esotericsoftware.kryo.serializers.ClosureSerializer.Closure},
+ * which must be registered explicitly.
+ * <p>
+ * To read a hashed ID for a class that was not yet registered, the class names in the configured packages are found by listing
+ * the packages' directories and jar files using the Kryo {@link com.esotericsoftware.kryo.Kryo#getClassLoader() class loader}.
+ * This is done once, the first time an unknown hashed ID is read. Only <code>file:</code> and <code>jar:</code> URLs can be
+ * listed, so class loaders that provide classes in other ways (eg <code>jrt:</code> modules or OSGi bundles) are not supported for
+ * reading and a KryoException is thrown when an unknown hashed ID is read. Jars nested in other jars can only be listed if the
+ * class loader's <code>jar:</code> URL handler supports them. */
+public class HashClassResolver extends DefaultClassResolver {
+	static public final int minHashId = 1 << 21;
+	static public final int maxHashId = 1 << 28;
+
+	private final ArrayList<String> packages = new ArrayList<>();
+	private IntMap<String> idToClassName;
+	private final ArrayList<URL> unlistedUrls = new ArrayList<>();
+
+	public HashClassResolver (String... packages) {
+		for (String packageName : packages)
+			addPackage(packageName);
+	}
+
+	/** Classes in the specified package or its subpackages are registered automatically. */
+	public void addPackage (String packageName) {
+		if (packageName == null) throw new IllegalArgumentException("packageName cannot be null.");
+		packages.add(packageName);
+		idToClassName = null;
+	}
+
+	/** Returns the registration for the specified class, registering it if it is in one of the configured packages. */
+	public Registration getRegistration (Class type) {
+		Registration registration = super.getRegistration(type);
+		if (registration == null && type != null && isHashed(type)) registration = registerHashed(type);
+		return registration;
+	}
+
+	/** Returns the registration for the specified class ID, registering the class if the ID is the hashed ID of a class in one of
+	 * the configured packages. */
+	public Registration getRegistration (int classID) {
+		Registration registration = super.getRegistration(classID);
+		if (registration == null && classID >= minHashId && classID < maxHashId) {
+			String className = findClassName(classID);
+			if (className != null) {
+				Class type;
+				try {
+					type = Class.forName(className, false, kryo.getClassLoader());
+				} catch (ClassNotFoundException ex) {
+					throw new KryoException("Unable to find class: " + className, ex);
+				}
+				registration = getRegistration(type);
+			}
+		}
+		return registration;
+	}
+
+	private Registration registerHashed (Class type) {
+		int id = getHashId(type.getName());
+		Registration existing = idToRegistration.get(id);
+		if (existing != null && existing.getType() != type) {
+			throw new KryoException("Class ID hash collision, register one of these classes explicitly: " + className(type) + ", "
+				+ className(existing.getType()));
+		}
+		return register(new Registration(type, kryo.getDefaultSerializer(type), id));
+	}
+
+	/** Returns true if the specified class is given a hashed ID. Classes that Kryo registers using a different class are not
+	 * hashed. */
+	protected boolean isHashed (Class type) {
+		if (type.isSynthetic() || type.getName().indexOf('/') != -1) return false; // Closures and hidden classes.
+		if (kryo.isProxy(type) || kryo.isClosure(type)) return false;
+		if (!type.isEnum() && Enum.class.isAssignableFrom(type)) return false; // Enum value with a body.
+		return isHashed(type.getName());
+	}
+
+	/** Returns true if the specified class is in one of the configured packages. */
+	protected boolean isHashed (String className) {
+		for (int i = 0, n = packages.size(); i < n; i++) {
+			String packageName = packages.get(i);
+			if (className.length() > packageName.length() && className.startsWith(packageName)
+				&& className.charAt(packageName.length()) == '.') return true;
+		}
+		return false;
+	}
+
+	/** Returns the ID for the specified class name, between {@link #minHashId} (inclusive) and {@link #maxHashId} (exclusive).
+	 * This uses the 32-bit FNV-1a hash of the class name. */
+	static public int getHashId (String className) {
+		int hash = 0x811c9dc5;
+		for (int i = 0, n = className.length(); i < n; i++) {
+			hash ^= className.charAt(i);
+			hash *= 0x01000193;
+		}
+		return minHashId + (hash & 0x7fffffff) % (maxHashId - minHashId);
+	}
+
+	private String findClassName (int id) {
+		if (idToClassName == null) {
+			idToClassName = new IntMap<>();
+			unlistedUrls.clear();
+			ClassLoader classLoader = kryo.getClassLoader();
+			for (int i = 0, n = packages.size(); i < n; i++) {
+				try {
+					findClassNames(classLoader, packages.get(i));
+				} catch (IOException | URISyntaxException ex) {
+					throw new KryoException("Unable to list classes in package: " + packages.get(i), ex);
+				}
+			}
+		}
+		String className = idToClassName.get(id);
+		if (className == null && !unlistedUrls.isEmpty()) {
+			throw new KryoException("Unable to find the class for hashed class ID: " + id
+				+ "\nClasses can only be found in file: and jar: URLs. The class must be registered explicitly. Unable to list: "
+				+ unlistedUrls);
+		}
+		if (className != null && className.indexOf(',') != -1)
+			throw new KryoException("Class ID hash collision, register one of these classes explicitly: " + className);
+		return className;
+	}
+
+	private void findClassNames (ClassLoader classLoader, String packageName) throws IOException, URISyntaxException {
+		String path = packageName.replace('.', '/');
+		Enumeration<URL> urls = classLoader.getResources(path);
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			if (url.getProtocol().equals("file"))
+				findClassNames(new File(url.toURI()), packageName);
+			else if (url.getProtocol().equals("jar")) {
+				JarURLConnection connection = (JarURLConnection)url.openConnection();
+				connection.setUseCaches(false);
+				try (JarFile jarFile = connection.getJarFile()) {
+					for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+						String name = entries.nextElement().getName();
+						if (name.startsWith(path + '/') && name.endsWith(".class"))
+							addClassName(name.substring(0, name.length() - 6).replace('/', '.'));
+					}
+				}
+			} else {
+				if (DEBUG) debug("kryo", "Unable to list classes for hashed class IDs: " + url);
+				unlistedUrls.add(url);
+			}
+		}
+	}
+
+	private void findClassNames (File dir, String packageName) {
+		File[] files = dir.listFiles();
+		if (files == null) return;
+		for (File file : files) {
+			String name = file.getName();
+			if (file.isDirectory())
+				findClassNames(file, packageName + '.' + name);
+			else if (name.endsWith(".class")) //
+				addClassName(packageName + '.' + name.substring(0, name.length() - 6));
+		}
+	}
+
+	private void addClassName (String className) {
+		if (className.endsWith("module-info") || className.endsWith("package-info")) return;
+		int id = getHashId(className);
+		String existing = idToClassName.get(id);
+		if (existing == null)
+			idToClassName.put(id, className);
+		else if (!existing.equals(className)) //
+			idToClassName.put(id, existing + ", " + className);
+	}
+}
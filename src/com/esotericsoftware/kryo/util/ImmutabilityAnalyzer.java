@@ -0,0 +1,114 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/** Determines whether classes are deeply immutable, so their objects can be shared rather than copied and don't need reference
+ * tracking. A class is considered immutable if it is a primitive, primitive wrapper, String, enum or one of a number of known
+ * immutable JDK value types, or if every instance field of the class and its superclasses is final and has a primitive type or a
+ * final class type that is itself immutable. This includes records whose components are all immutable.
+ * <p>
+ * Arrays, interfaces and abstract classes are never immutable, since a field of such a type could reference a mutable object.
+ * Classes that reference themselves, directly or indirectly, are conservatively considered mutable. Results are cached, and
+ * {@link #setImmutable(Class, boolean)} can be used to override the analysis, eg for a class that lazily caches a value in a
+ * non-final field.
+ * <p>
+ * This class is thread safe, so an analyzer can be shared by Kryo instances used by different threads.
+ * @see com.esotericsoftware.kryo.Kryo#setImmutabilityAnalyzer(ImmutabilityAnalyzer) */
+public class ImmutabilityAnalyzer {
+	static private final Class[] knownImmutable = {String.class, BigInteger.class, BigDecimal.class, UUID.class, Locale.class,
+		Currency.class, URI.class, Pattern.class, Duration.class, Instant.class, LocalDate.class, LocalDateTime.class,
+		LocalTime.class, MonthDay.class, OffsetDateTime.class, OffsetTime.class, Period.class, Year.class, YearMonth.class,
+		ZoneOffset.class, ZonedDateTime.class};
+
+	private final ConcurrentHashMap<Class, Boolean> immutable = new ConcurrentHashMap<>();
+	private final IdentityMap<Class, Boolean> analyzing = new IdentityMap<>(); // Guarded by this.
+
+	public ImmutabilityAnalyzer () {
+		for (Class type : knownImmutable)
+			immutable.put(type, Boolean.TRUE);
+	}
+
+	/** Returns true if objects of the specified class are deeply immutable. */
+	public boolean isImmutable (Class type) {
+		Boolean value = immutable.get(type);
+		if (value != null) return value;
+		synchronized (this) {
+			value = immutable.get(type);
+			if (value != null) return value;
+			// Classes being analyzed are mutable, so self references are conservatively mutable.
+			if (analyzing.containsKey(type)) return false;
+			analyzing.put(type, Boolean.TRUE);
+			try {
+				value = analyze(type);
+			} finally {
+				analyzing.remove(type);
+			}
+			immutable.put(type, value);
+			return value;
+		}
+	}
+
+	/** Overrides the analysis for the specified class. */
+	public void setImmutable (Class type, boolean immutable) {
+		this.immutable.put(type, immutable);
+	}
+
+	protected boolean analyze (Class type) {
+		if (type.isPrimitive() || Util.isWrapperClass(type) || Util.isEnum(type)) return true;
+		if (type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) return false;
+		for (Class current = type; current != Object.class && current != null; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers)) continue;
+				if (!Modifier.isFinal(modifiers)) return false;
+				Class fieldType = field.getType();
+				if (fieldType.isPrimitive()) continue;
+				if (!Modifier.isFinal(fieldType.getModifiers()) && !fieldType.isEnum()) return false;
+				if (!isImmutable(fieldType)) return false;
+			}
+		}
+		return true;
+	}
+}
@@ -27,13 +27,15 @@ import java.util.ArrayList;
 /** Uses an {@link IdentityObjectIntMap} to track objects that have already been written. This can handle a graph with any number
  * of objects, but is slightly slower than {@link ListReferenceResolver} for graphs with few objects. Compared to
  * {@link HashMapReferenceResolver}, this may provide better performance since the IdentityObjectIntMap does not normally allocate
- * for get or put.
+ * for get or put. The map is an {@link EpochIdentityObjectIntMap}, so {@link #reset()} does not need to visit the whole table
+ * unless it is larger than the maximum capacity. Written objects from previous graphs can remain referenced by the table until
+ * their slots are reused.
  * @author Nathan Sweet */
 public class MapReferenceResolver implements ReferenceResolver {
 	private static final int DEFAULT_CAPACITY = 2048;
 
 	protected Kryo kryo;
-	protected final IdentityObjectIntMap<Object> writtenObjects = new IdentityObjectIntMap<>();
+	protected final IdentityObjectIntMap<Object> writtenObjects = new EpochIdentityObjectIntMap<>();
 	protected final ArrayList<Object> readObjects = new ArrayList<>();
 	private final int maximumCapacity;
 
@@ -0,0 +1,83 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.ClosureSerializer.Closure;
+import com.esotericsoftware.kryo.util.ObjectIntMap.Entry;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.ArrayList;
+
+/** A class resolver that counts how many times each class is written. After serializing a representative workload,
+ * {@link #getRegistrationPlan()} provides a {@link RegistrationPlan} that registers the most frequently written classes first, so
+ * they get the smallest IDs. Class IDs below 126 are written using 1 byte. */
+public class ProfilingClassResolver extends DefaultClassResolver {
+	protected final IdentityObjectIntMap<Class> writeCounts = new IdentityObjectIntMap<>();
+
+	public Registration writeClass (Output output, Class type) {
+		Registration registration = super.writeClass(output, type);
+		if (registration != null) writeCounts.getAndIncrement(getPlannedType(registration.getType()), 0, 1);
+		return registration;
+	}
+
+	/** Returns the class to count and register for the class of a registration. Kryo registers proxies using
+	 * {@link InvocationHandler} and closures using {@link Closure}. If those are not registered, the registration is for the
+	 * generated class, which can't be found by name, so the class Kryo would use is returned instead. */
+	protected Class getPlannedType (Class type) {
+		if (kryo.isProxy(type)) return InvocationHandler.class;
+		if (kryo.isClosure(type)) return Closure.class;
+		return type;
+	}
+
+	/** Returns the number of times the specified class has been written. Proxies and closures are counted as
+	 * {@link #getPlannedType(Class)}, and enum values with a body as their enum. */
+	public int getWriteCount (Class type) {
+		return writeCounts.get(type, 0);
+	}
+
+	public void clearWriteCounts () {
+		writeCounts.clear();
+	}
+
+	/** Returns a plan that registers the classes which have been written, most frequently written first. Classes with the same
+	 * count are ordered by name so the plan is deterministic. */
+	public RegistrationPlan getRegistrationPlan () {
+		ArrayList<Entry<Class>> entries = new ArrayList<>(writeCounts.size);
+		for (Entry<Class> entry : writeCounts.entries()) {
+			if (entry.key.isPrimitive()) continue; // Registered with the primitive wrapper.
+			if (entry.key.getName().indexOf('/') != -1) continue; // Hidden classes can't be found by name.
+			Entry<Class> copy = new Entry<>();
+			copy.key = entry.key;
+			copy.value = entry.value;
+			entries.add(copy);
+		}
+		entries.sort((a, b) -> {
+			if (a.value != b.value) return b.value - a.value;
+			return a.key.getName().compareTo(b.key.getName());
+		});
+		ArrayList<String> classNames = new ArrayList<>(entries.size());
+		for (Entry<Class> entry : entries)
+			classNames.add(entry.key.getName());
+		return new RegistrationPlan(classNames);
+	}
+}
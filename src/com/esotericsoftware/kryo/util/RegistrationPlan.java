@@ -0,0 +1,102 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.serializers.ClosureSerializer;
+import com.esotericsoftware.kryo.serializers.ClosureSerializer.Closure;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** An ordered list of classes to register, typically created by {@link ProfilingClassResolver} so the most frequently written
+ * classes get the smallest class IDs. The plan can be saved to a text file with one class name per line, then loaded at startup
+ * and registered before any other classes:
+ *
+ * <pre>
+ * Kryo kryo = new Kryo();
+ * RegistrationPlan.read(reader).register(kryo);
+ * kryo.register(SomeClass.class, new SomeSerializer()); // Changes the serializer, keeps the planned ID.
+ * </pre>
+ *
+ * The same plan must be registered in the same order for serialization and deserialization. */
+public class RegistrationPlan {
+	private final ArrayList<String> classNames;
+
+	public RegistrationPlan (List<String> classNames) {
+		if (classNames == null) throw new IllegalArgumentException("classNames cannot be null.");
+		this.classNames = new ArrayList<>(classNames);
+	}
+
+	public List<String> getClassNames () {
+		return Collections.unmodifiableList(classNames);
+	}
+
+	/** Registers each class in order using {@link Kryo#register(Class)}, so each class that is not already registered gets the next
+	 * available ID. {@link Closure} is registered with a {@link ClosureSerializer}.
+	 * @throws KryoException if a class cannot be found. Classes are not skipped, as that would change the IDs of the classes after
+	 *            it. */
+	public void register (Kryo kryo) {
+		for (String className : classNames) {
+			Class type;
+			try {
+				type = Class.forName(className, false, kryo.getClassLoader());
+			} catch (ClassNotFoundException ex) {
+				throw new KryoException("Unable to find class: " + className, ex);
+			}
+			if (type == Closure.class && kryo.getClassResolver().getRegistration(type) == null)
+				kryo.register(type, new ClosureSerializer());
+			else
+				kryo.register(type);
+		}
+	}
+
+	/** Writes the class names, one per line. */
+	public void write (Writer writer) throws IOException {
+		writer.write("# Kryo registration plan, most frequently written classes first.\n");
+		for (String className : classNames) {
+			writer.write(className);
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/** Reads class names written by {@link #write(Writer)}. Empty lines and lines starting with # are ignored. */
+	static public RegistrationPlan read (Reader reader) throws IOException {
+		ArrayList<String> classNames = new ArrayList<>();
+		BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader)reader : new BufferedReader(reader);
+		for (String line; (line = lines.readLine()) != null;) {
+			line = line.trim();
+			if (!line.isEmpty() && line.charAt(0) != '#') classNames.add(line);
+		}
+		return new RegistrationPlan(classNames);
+	}
+
+	public String toString () {
+		return classNames.toString();
+	}
+}
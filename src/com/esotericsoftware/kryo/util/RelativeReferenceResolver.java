@@ -0,0 +1,85 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.ReferenceResolver;
+
+/** Wraps another reference resolver so that references are written as the distance back from the most recently written object,
+ * rather than as the ID of the object. References to recently written objects then use small numbers, which are written with
+ * fewer bytes. Reading a reference is still a constant time lookup.
+ * <p>
+ * The wrapped resolver must assign IDs sequentially from 0 after each reset, for both written and read objects, as
+ * {@link MapReferenceResolver}, {@link ListReferenceResolver}, {@link HashMapReferenceResolver} and
+ * {@link AdaptiveReferenceResolver} do. The writing and reading Kryo instances must both use this resolver. */
+public class RelativeReferenceResolver implements ReferenceResolver {
+	protected final ReferenceResolver resolver;
+	private int count;
+
+	public RelativeReferenceResolver () {
+		this(new MapReferenceResolver());
+	}
+
+	public RelativeReferenceResolver (ReferenceResolver resolver) {
+		if (resolver == null) throw new IllegalArgumentException("resolver cannot be null.");
+		this.resolver = resolver;
+	}
+
+	public void setKryo (Kryo kryo) {
+		resolver.setKryo(kryo);
+	}
+
+	public int addWrittenObject (Object object) {
+		int id = resolver.addWrittenObject(object);
+		count = id + 1;
+		return id;
+	}
+
+	/** Returns the distance back from the most recently written object, 0 being that object. */
+	public int getWrittenId (Object object) {
+		int id = resolver.getWrittenId(object);
+		return id == -1 ? -1 : count - 1 - id;
+	}
+
+	public int nextReadId (Class type) {
+		int id = resolver.nextReadId(type);
+		count = id + 1;
+		return id;
+	}
+
+	public void setReadObject (int id, Object object) {
+		resolver.setReadObject(id, object);
+	}
+
+	/** @param id The distance back from the most recently read object. */
+	public Object getReadObject (Class type, int id) {
+		return resolver.getReadObject(type, count - 1 - id);
+	}
+
+	public void reset () {
+		resolver.reset();
+		count = 0;
+	}
+
+	public boolean useReferences (Class type) {
+		return resolver.useReferences(type);
+	}
+}
@@ -0,0 +1,97 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static com.esotericsoftware.minlog.Log.*;
+
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/** A class resolver that keeps the class name IDs for unregistered classes across {@link com.esotericsoftware.kryo.Kryo#reset()
+ * resets}, so each class name is written only once per session rather than once per object graph. Package names are also written
+ * only once per session, then referenced by ID when writing the names of other classes in the same package.
+ * <p>
+ * Both the writing and reading Kryo instances must use a SessionClassResolver and every object graph written during a session must
+ * be read, in the same order, by the same reading Kryo instance. This is typical for a long lived connection or stream. Call
+ * {@link #resetSession()} on both ends when a new session begins, eg when a connection is reestablished, or after a failed write or
+ * read. */
+public class SessionClassResolver extends DefaultClassResolver {
+	protected final ObjectIntMap<String> packageToId = new ObjectIntMap<>();
+	protected final IntMap<String> idToPackage = new IntMap<>();
+
+	/** Does not clear the class name IDs.
+	 * @see #resetSession() */
+	public void reset () {
+	}
+
+	/** Clears the class name and package name IDs. The next object graph written or read begins a new session. */
+	public void resetSession () {
+		if (classToNameId != null) classToNameId.clear(2048);
+		if (nameIdToClass != null) nameIdToClass.clear();
+		nextNameId = 0;
+		packageToId.clear(2048);
+		idToPackage.clear(2048);
+	}
+
+	/** Writes the package ID, followed by the package name the first time it is encountered, then the class name without the
+	 * package. */
+	protected void writeClassName (Output output, Class type, Registration registration) {
+		String name = type.getName();
+		int index = name.lastIndexOf('.');
+		String packageName = index == -1 ? "" : name.substring(0, index);
+		int packageId = packageToId.get(packageName, -1);
+		if (packageId != -1) {
+			if (TRACE) trace("kryo", "Write package name reference " + packageId + ": " + packageName);
+			output.writeVarInt(packageId + 1, true);
+		} else {
+			if (TRACE) trace("kryo", "Write package name: " + packageName);
+			packageToId.put(packageName, packageToId.size);
+			output.writeVarInt(0, true);
+			writeName(output, packageName, registration);
+		}
+		writeName(output, name.substring(index + 1), registration);
+	}
+
+	private void writeName (Output output, String name, Registration registration) {
+		if (registration.isTypeNameAscii())
+			output.writeAscii(name);
+		else
+			output.writeString(name);
+	}
+
+	protected String readClassName (Input input) {
+		int packageId = input.readVarInt(true);
+		String packageName;
+		if (packageId == 0) {
+			packageName = input.readString();
+			if (TRACE) trace("kryo", "Read package name: " + packageName);
+			idToPackage.put(idToPackage.size, packageName);
+		} else {
+			packageName = idToPackage.get(packageId - 1);
+			if (packageName == null) throw new KryoException("Encountered unknown package name ID: " + (packageId - 1));
+			if (TRACE) trace("kryo", "Read package name reference " + (packageId - 1) + ": " + packageName);
+		}
+		String name = input.readString();
+		return packageName.isEmpty() ? name : packageName + '.' + name;
+	}
+}
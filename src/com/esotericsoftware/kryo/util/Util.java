@@ -54,6 +54,24 @@ public class Util {
 		unsafe = found;
 	}
 
+	/** True if VarHandles are available (Java 9+). When Unsafe is not used, VarHandles are used to access fields that cannot be
+	 * accessed with ReflectASM. VarHandles can be disabled by setting the system property "kryo.varHandles" to "false". */
+	public static final boolean varHandles;
+	static {
+		boolean found = false;
+		if ("false".equals(System.getProperty("kryo.varHandles"))) {
+			if (TRACE) trace("kryo", "VarHandles are disabled.");
+		} else if (!isAndroid) {
+			try {
+				Class.forName("java.lang.invoke.VarHandle");
+				found = true;
+			} catch (Throwable ex) {
+				if (TRACE) trace("kryo", "VarHandles are unavailable.", ex);
+			}
+		}
+		varHandles = found;
+	}
+
 	// Maximum reasonable array length. See: https://stackoverflow.com/questions/3038392/do-java-arrays-have-a-maximum-size
 	public static final int maxArraySize = Integer.MAX_VALUE - 8;
 
@@ -259,6 +277,19 @@ public class Util {
 		return false;
 	}
 
+	/** Returns true if the method is declared by the specified class or a superclass below the base class, ie it overrides the
+	 * base class' method. */
+	public static boolean isOverridden (Class type, Class base, String methodName, Class... parameterTypes) {
+		for (Class current = type; current != base && current != null; current = current.getSuperclass()) {
+			try {
+				current.getDeclaredMethod(methodName, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException ignored) {
+			}
+		}
+		return false;
+	}
+
 	private static boolean isPrimitiveWrapperOf (Class<?> targetClass, Class<?> primitive) {
 		return getPrimitiveWrapper(primitive) == targetClass;
 	}
@@ -0,0 +1,115 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.ReferenceResolver;
+
+import java.util.Arrays;
+
+/** Tracks only the most recent objects written or read, so references can be used across many object graphs on a long lived
+ * stream without the tracked objects growing without bound. This is intended for use with {@link Kryo#setAutoReset(boolean)
+ * auto reset} disabled, so an object written again in a later graph is written as a reference if it is still in the window.
+ * <p>
+ * The objects are kept in a ring buffer with a fixed number of slots. Each object written or read takes the next slot, evicting
+ * the object in that slot, and the slot index is used as the reference ID. Since the writing and reading Kryo instances see the
+ * same sequence of objects, they evict the same objects and stay in sync. Both must use the same window size.
+ * <p>
+ * An object evicted while it is still being serialized is written again if it is encountered again. For graphs with cycles, the
+ * window size must be larger than the number of objects in a graph, else serialization may not terminate. Likewise, if a
+ * serializer calls {@link Kryo#reference(Object)} only after reading nested objects and those wrap around the window, the
+ * object's slot has been taken by a nested object and the object is not tracked, the same as when it is evicted by the writer. */
+public class WindowedReferenceResolver implements ReferenceResolver {
+	protected Kryo kryo;
+	protected final Object[] objects;
+	/** True for slots whose ID has been read but whose object has not been set yet. */
+	protected final boolean[] open;
+	protected final IdentityObjectIntMap<Object> writtenObjects = new IdentityObjectIntMap<>();
+	protected int nextSlot, size;
+
+	/** @param windowSize the maximum number of objects to track. */
+	public WindowedReferenceResolver (int windowSize) {
+		if (windowSize < 1) throw new IllegalArgumentException("windowSize must be > 0: " + windowSize);
+		objects = new Object[windowSize];
+		open = new boolean[windowSize];
+	}
+
+	public void setKryo (Kryo kryo) {
+		this.kryo = kryo;
+	}
+
+	public int getWindowSize () {
+		return objects.length;
+	}
+
+	public int addWrittenObject (Object object) {
+		int id = nextSlot();
+		Object evicted = objects[id];
+		if (evicted != null) writtenObjects.remove(evicted, -1);
+		objects[id] = object;
+		writtenObjects.put(object, id);
+		return id;
+	}
+
+	public int getWrittenId (Object object) {
+		return writtenObjects.get(object, -1);
+	}
+
+	public int nextReadId (Class type) {
+		int id = nextSlot();
+		objects[id] = null;
+		open[id] = true;
+		return id;
+	}
+
+	public void setReadObject (int id, Object object) {
+		// If the slot was reused by a nested object before this object was set, the writer evicted this object.
+		if (!open[id]) return;
+		open[id] = false;
+		objects[id] = object;
+	}
+
+	public Object getReadObject (Class type, int id) {
+		if (id >= size) throw new IndexOutOfBoundsException("Reference ID is not in the window: " + id);
+		return objects[id];
+	}
+
+	private int nextSlot () {
+		int id = nextSlot;
+		nextSlot = id + 1 == objects.length ? 0 : id + 1;
+		if (size < objects.length) size++;
+		return id;
+	}
+
+	/** Clears all tracked objects. The writing and reading Kryo instances must be reset at the same point in the stream. */
+	public void reset () {
+		Arrays.fill(objects, 0, size, null);
+		Arrays.fill(open, 0, size, false);
+		writtenObjects.clear(objects.length);
+		nextSlot = 0;
+		size = 0;
+	}
+
+	/** Returns false for all primitive wrappers and enums. */
+	public boolean useReferences (Class type) {
+		return !Util.isWrapperClass(type) && !Util.isEnum(type);
+	}
+}
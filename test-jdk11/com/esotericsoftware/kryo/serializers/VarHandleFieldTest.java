@@ -0,0 +1,125 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.serializers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.KryoTestCase;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.FieldSerializer.CachedField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.BooleanVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.ByteVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.CharVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.DoubleVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.FloatVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.IntVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.LongVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.ShortVarHandleField;
+import com.esotericsoftware.kryo.serializers.VarHandleField.StringVarHandleField;
+import com.esotericsoftware.kryo.util.Generics.GenericType;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+class VarHandleFieldTest extends KryoTestCase {
+	@Test
+	void testPrimitiveFields () throws Exception {
+		CachedField[] fields = {new IntVarHandleField(field("intField")), new FloatVarHandleField(field("floatField")),
+			new BooleanVarHandleField(field("booleanField")), new LongVarHandleField(field("longField")),
+			new DoubleVarHandleField(field("doubleField")), new ShortVarHandleField(field("shortField")),
+			new CharVarHandleField(field("charField")), new ByteVarHandleField(field("byteField")),
+			new StringVarHandleField(field("stringField"))};
+
+		HasFields original = new HasFields();
+		original.intField = -1234;
+		original.floatField = 12.5f;
+		original.booleanField = true;
+		original.longField = 123456789012L;
+		original.doubleField = -0.25;
+		original.shortField = 1234;
+		original.charField = 'k';
+		original.byteField = -12;
+		original.stringField = "value";
+
+		for (boolean varEncoding : new boolean[] {true, false}) {
+			Output output = new Output(128);
+			for (CachedField field : fields) {
+				field.varEncoding = varEncoding;
+				field.write(output, original);
+			}
+			HasFields read = new HasFields();
+			Input input = new Input(output.toBytes());
+			for (CachedField field : fields)
+				field.read(input, read);
+			assertEquals(original, read);
+			assertEquals(input.limit(), input.position());
+		}
+
+		HasFields copy = new HasFields();
+		for (CachedField field : fields)
+			field.copy(original, copy);
+		assertEquals(original, copy);
+	}
+
+	@Test
+	void testObjectField () throws Exception {
+		kryo.register(HasFields.class);
+		FieldSerializer serializer = new FieldSerializer(kryo, HasFields.class);
+		Field field = field("objectField");
+		VarHandleField cachedField = new VarHandleField(field, serializer, new GenericType(HasFields.class, HasFields.class,
+			field.getGenericType()));
+
+		HasFields object = new HasFields();
+		cachedField.set(object, 5);
+		assertEquals(5, object.objectField);
+		assertEquals(5, cachedField.get(object));
+	}
+
+	private Field field (String name) throws NoSuchFieldException {
+		return HasFields.class.getDeclaredField(name);
+	}
+
+	static private class HasFields {
+		private int intField;
+		private float floatField;
+		private boolean booleanField;
+		private long longField;
+		private double doubleField;
+		private short shortField;
+		private char charField;
+		private byte byteField;
+		private String stringField;
+		private Object objectField;
+
+		public boolean equals (Object obj) {
+			if (this == obj) return true;
+			if (obj == null || getClass() != obj.getClass()) return false;
+			HasFields other = (HasFields)obj;
+			return intField == other.intField && floatField == other.floatField && booleanField == other.booleanField
+				&& longField == other.longField && doubleField == other.doubleField && shortField == other.shortField
+				&& charField == other.charField && byteField == other.byteField && Objects.equals(stringField, other.stringField)
+				&& Objects.equals(objectField, other.objectField);
+		}
+	}
+}
@@ -22,6 +22,7 @@ package com.esotericsoftware.kryo;
 import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -54,6 +55,19 @@ public class DefaultInstantiatorStrategyTest {
         assertTrue(thrown.getMessage().contains("The type you are trying to serialize into is abstract (interface)."));
     }
 
+    @Test
+    public void testPrivateConstructorIsInvoked() {
+        PrivateConstructor instance = (PrivateConstructor)instantiatorStrategy.newInstantiatorOf(PrivateConstructor.class).newInstance();
+        assertEquals(123, instance.value);
+    }
+
+    @Test
+    public void testConstructorExceptionIsWrapped() {
+        KryoException thrown = assertThrows(KryoException.class, () -> tryInstantiate(ThrowingConstructor.class));
+        assertTrue(thrown.getMessage().contains("Error constructing instance of class"));
+        assertTrue(thrown.getCause() instanceof IllegalStateException);
+    }
+
     public void tryInstantiate(Class type) {
         instantiatorStrategy.newInstantiatorOf(type).newInstance();
     }
@@ -61,6 +75,20 @@ public class DefaultInstantiatorStrategyTest {
     private static abstract class AbstractStaticMemberClass {}
 
     private interface MemberInterface {}
+
+    private static class PrivateConstructor {
+        int value;
+
+        private PrivateConstructor() {
+            value = 123;
+        }
+    }
+
+    private static class ThrowingConstructor {
+        private ThrowingConstructor() {
+            throw new IllegalStateException();
+        }
+    }
 }
 
 abstract class AbstracClass {}
@@ -70,6 +70,45 @@ class RegistrationTest {
 		}
 	}
 
+	@Test
+	void testRegistrationLookup () {
+		Kryo kryo = new Kryo();
+		Class[] types = {int[].class, long[].class, float[].class, double[].class, short[].class, char[].class, byte[].class,
+			boolean[].class, String[].class, Object[].class, Fruit.class, Apple.class};
+		int[] ids = {100, 101, 102, 103, 104, 105, 106, 107, 5000, 5001, 1000, 1001};
+		for (int i = 0; i < types.length; i++)
+			kryo.register(types[i], ids[i]);
+
+		// More types than are memoized, looked up repeatedly and in different orders.
+		for (int n = 0; n < 3; n++) {
+			for (int i = 0; i < types.length; i++) {
+				assertEquals(ids[i], kryo.getRegistration(types[i]).getId());
+				assertSame(types[i], kryo.getRegistration(ids[i]).getType());
+			}
+			for (int i = types.length - 1; i >= 0; i--)
+				assertEquals(ids[i], kryo.getRegistration(types[i]).getId());
+		}
+
+		Output output = new Output(1024);
+		for (Class type : types)
+			kryo.writeClass(output, type);
+		Input input = new Input(output.toBytes());
+		for (Class type : types)
+			assertSame(type, kryo.readClass(input).getType());
+
+		kryo.getClassResolver().unregister(1000);
+		kryo.getClassResolver().unregister(5000);
+		assertNull(kryo.getRegistration(1000));
+		assertNull(kryo.getRegistration(5000));
+		assertNull(kryo.getClassResolver().getRegistration(Fruit.class));
+		assertNull(kryo.getClassResolver().getRegistration(String[].class));
+		assertSame(Apple.class, kryo.getRegistration(1001).getType());
+
+		kryo.register(Fruit.class, 1001);
+		assertSame(Fruit.class, kryo.getRegistration(1001).getType());
+		assertEquals(1001, kryo.getRegistration(Fruit.class).getId());
+	}
+
 	public static class Some<T> {
 		public T value;
 
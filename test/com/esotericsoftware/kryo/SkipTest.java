@@ -0,0 +1,208 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.CollectionSerializer;
+import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
+import com.esotericsoftware.kryo.serializers.MapSerializer;
+import com.esotericsoftware.kryo.serializers.UnmodifiableCollectionSerializers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class SkipTest {
+	@Test
+	void testSkip () {
+		testSkip(false);
+		testSkip(true);
+	}
+
+	private void testSkip (boolean references) {
+		Kryo kryo = new Kryo();
+		kryo.setRegistrationRequired(false);
+		kryo.setReferences(references);
+		UnmodifiableCollectionSerializers.addDefaultSerializers(kryo);
+
+		HashMap map = new HashMap();
+		map.put("a", 1);
+		map.put(2, new int[] {3});
+		Object[] values = {123, -123456789L, 'c', (short)5, 1.5f, 2.5d, true, (byte)7, "ascii", "",
+			"unicode \u00E1\u00E9\u1234", new byte[] {1, 2}, new int[] {1, -2, 300000}, new long[] {4, Long.MIN_VALUE},
+			new float[] {1.5f}, new double[] {2.5}, new short[] {3}, new char[] {'x'}, new boolean[] {true, false},
+			new String[] {"a", null, "b"}, new Object[] {1, "two", null, new Node("three")},
+			new ArrayList(Arrays.asList("a", "b", null)), new TreeSet(Arrays.asList(3, 1, 2)), map,
+			Collections.unmodifiableList(new ArrayList(Arrays.asList(1, 2))), new Node("node")};
+
+		Output output = new Output(1024, -1);
+		for (Object value : values) {
+			kryo.writeClassAndObject(output, value);
+			output.writeInt(42);
+		}
+		kryo.writeObjectOrNull(output, null, String.class);
+		kryo.writeObjectOrNull(output, "string", String.class);
+		output.writeInt(43);
+
+		Input input = new Input(output.toBytes());
+		for (Object value : values) {
+			kryo.skipClassAndObject(input);
+			assertEquals(42, input.readInt(), className(value));
+		}
+		kryo.skipObjectOrNull(input, String.class);
+		kryo.skipObjectOrNull(input, String.class);
+		assertEquals(43, input.readInt());
+		assertEquals(input.limit(), input.position());
+	}
+
+	@Test
+	void testSkipReferenced () {
+		Kryo kryo = new Kryo();
+		kryo.setRegistrationRequired(false);
+		kryo.setReferences(true);
+		kryo.setAutoReset(false);
+
+		Node node = new Node("node");
+		Output output = new Output(1024);
+		kryo.writeClassAndObject(output, node);
+		kryo.writeClassAndObject(output, new ArrayList(Arrays.asList(node)));
+
+		// The skipped object is still created so the later reference can be resolved.
+		Input input = new Input(output.toBytes());
+		kryo.skipClassAndObject(input);
+		ArrayList list = (ArrayList)kryo.readClassAndObject(input);
+		assertEquals(node, list.get(0));
+	}
+
+	@Test
+	void testSkipSubclassFormat () {
+		// Subclasses that write their own bytes are skipped by reading, rather than as if they used the superclass' format.
+		Holder holder = new Holder();
+		holder.id = 1;
+		holder.list = new ArrayList(Arrays.asList("a", "b"));
+		holder.map = new HashMap();
+		holder.map.put("c", "d");
+		holder.tail = "tail";
+		Output output = new Output(1024);
+		newHolderKryo(false).writeObject(output, holder);
+
+		Holder read = newHolderKryo(true).readObject(new Input(output.toBytes()), Holder.class);
+		assertEquals(1, read.id);
+		assertNull(read.list);
+		assertNull(read.map);
+		assertEquals("tail", read.tail);
+	}
+
+	private Kryo newHolderKryo (boolean removeFields) {
+		Kryo kryo = new Kryo();
+		kryo.register(ArrayList.class, new CollectionSerializer<ArrayList>() {
+			public void write (Kryo kryo, Output output, ArrayList list) {
+				output.writeInt(list.size());
+				for (Object value : list)
+					output.writeString((String)value);
+			}
+
+			public ArrayList read (Kryo kryo, Input input, Class<? extends ArrayList> type) {
+				ArrayList list = new ArrayList();
+				for (int i = 0, n = input.readInt(); i < n; i++)
+					list.add(input.readString());
+				return list;
+			}
+		});
+		kryo.register(HashMap.class, new MapSerializer<HashMap>() {
+			public void write (Kryo kryo, Output output, HashMap map) {
+				output.writeInt(map.size());
+				map.forEach((key, value) -> {
+					output.writeString((String)key);
+					output.writeString((String)value);
+				});
+			}
+
+			public HashMap read (Kryo kryo, Input input, Class<? extends HashMap> type) {
+				HashMap map = new HashMap();
+				for (int i = 0, n = input.readInt(); i < n; i++)
+					map.put(input.readString(), input.readString());
+				return map;
+			}
+		});
+		CompatibleFieldSerializer serializer = new CompatibleFieldSerializer(kryo, Holder.class);
+		if (removeFields) {
+			serializer.removeField("list");
+			serializer.removeField("map");
+		}
+		kryo.register(Holder.class, serializer);
+		return kryo;
+	}
+
+	@Test
+	void testSkipString () {
+		String[] values = {"", "a", "ascii", "\u00E1", "unicode \u00E1\u00E9\u1234 \uD83D\uDE00", null,
+			new String(new char[300]).replace('\0', 'x')};
+		Output output = new Output(1024, -1);
+		for (String value : values) {
+			output.writeString(value);
+			output.writeByte(42);
+		}
+		Input input = new Input(output.toBytes());
+		for (String value : values) {
+			input.skipString();
+			assertEquals(42, input.readByte(), value);
+		}
+	}
+
+	private String className (Object value) {
+		return value.getClass().getName();
+	}
+
+	public static class Holder {
+		public int id;
+		public ArrayList list;
+		public HashMap map;
+		public String tail; // After the removed fields.
+	}
+
+	public static class Node {
+		public String name;
+
+		public Node () {
+		}
+
+		public Node (String name) {
+			this.name = name;
+		}
+
+		public boolean equals (Object object) {
+			return object instanceof Node && Objects.equals(name, ((Node)object).name);
+		}
+
+		public int hashCode () {
+			return Objects.hashCode(name);
+		}
+	}
+}
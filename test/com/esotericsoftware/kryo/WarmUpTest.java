@@ -0,0 +1,106 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.serializers.FieldSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+class WarmUpTest extends KryoTestCase {
+	@Test
+	void testWarmUpCreatesNestedRegistrations () {
+		kryo.setRegistrationRequired(false);
+		kryo.warmUp(Collections.singletonList(Outer.class));
+
+		Registration outer = kryo.getClassResolver().getRegistration(Outer.class);
+		assertNotNull(outer);
+		assertTrue(outer.getSerializer() instanceof FieldSerializer);
+		assertNotNull(outer.getInstantiator());
+		assertNotNull(kryo.getClassResolver().getRegistration(Inner.class));
+		assertNotNull(kryo.getClassResolver().getRegistration(Leaf.class));
+
+		roundTrip(92, new Outer(1, "a"));
+	}
+
+	@Test
+	void testWarmUpSkipsUnregisteredFields () {
+		kryo.register(Outer.class);
+		kryo.warmUp(Collections.singletonList(Outer.class));
+		assertNull(kryo.getClassResolver().getRegistration(Inner.class));
+
+		assertThrows(IllegalArgumentException.class, () -> kryo.warmUp(Collections.singletonList(Inner.class)));
+	}
+
+	@Test
+	void testWarmUpSamples () {
+		kryo.register(Outer.class);
+		kryo.register(Inner.class);
+		kryo.register(Leaf.class);
+		kryo.register(Leaf[].class);
+		kryo.register(ArrayList.class);
+		kryo.warmUpSamples(Arrays.asList(new Outer(1, "a"), new Outer(2, null), new ArrayList()), 10);
+
+		roundTrip(6, new Outer(3, "b"));
+	}
+
+	static public class Outer {
+		public int value;
+		public Inner inner;
+
+		public Outer () {
+		}
+
+		public Outer (int value, String name) {
+			this.value = value;
+			inner = new Inner();
+			inner.name = name;
+		}
+
+		public boolean equals (Object obj) {
+			if (this == obj) return true;
+			if (obj == null || getClass() != obj.getClass()) return false;
+			Outer other = (Outer)obj;
+			return value == other.value && (inner == null ? other.inner == null : inner.equals(other.inner));
+		}
+	}
+
+	static public class Inner {
+		public String name;
+		public Leaf[] leaves;
+
+		public boolean equals (Object obj) {
+			if (this == obj) return true;
+			if (obj == null || getClass() != obj.getClass()) return false;
+			Inner other = (Inner)obj;
+			return name == null ? other.name == null : name.equals(other.name);
+		}
+	}
+
+	static public class Leaf {
+		public long id;
+	}
+}
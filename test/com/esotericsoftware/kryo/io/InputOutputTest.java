@@ -1137,6 +1137,39 @@ class InputOutputTest extends KryoTestCase {
 		kryo.writeClassAndObject(byteBufferOutput, "Test string");
 	}
 
+	@Test
+	void testLengths () throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		Output output = new Output(buffer, 8);
+		output.writeString("before");
+		int outer = output.beginLength();
+		for (int i = 0; i < 100; i++)
+			output.writeVarInt(i * 1000, true);
+		int inner = output.beginLength();
+		output.writeString("inner");
+		output.endLength(inner);
+		output.endLength(outer);
+		output.writeString("after");
+		output.flush();
+		assertThrows(KryoException.class, () -> output.endLength(0));
+
+		Input input = new Input(new ByteArrayInputStream(buffer.toByteArray()), 8);
+		assertEquals("before", input.readString());
+		input.skipTo(input.readLength());
+		assertEquals("after", input.readString());
+
+		input = new Input(buffer.toByteArray());
+		input.readString();
+		long end = input.readLength();
+		for (int i = 0; i < 100; i++)
+			assertEquals(i * 1000, input.readVarInt(true));
+		long innerEnd = input.readLength();
+		assertEquals("inner", input.readString());
+		assertEquals(innerEnd, input.total());
+		input.skipTo(end);
+		assertEquals("after", input.readString());
+	}
+
 	@Test
 	void testFlushRoundTrip () throws Exception {
 
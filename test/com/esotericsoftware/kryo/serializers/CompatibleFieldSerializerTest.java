@@ -24,9 +24,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.KryoTestCase;
+import com.esotericsoftware.kryo.Projection;
 import com.esotericsoftware.kryo.SerializerFactory.CompatibleFieldSerializerFactory;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.FieldSerializer.CachedField;
 
 import java.io.Serializable;
 import java.util.Arrays;
@@ -242,6 +244,28 @@ class CompatibleFieldSerializerTest extends KryoTestCase {
 		assertNull(o.value);
 	}
 
+	@Test
+	void testLengthPrefixedEncoding () {
+		CompatibleFieldSerializer<ClassWithStringField> serializer = new CompatibleFieldSerializer<>(kryo, ClassWithStringField.class);
+		serializer.getCompatibleFieldSerializerConfig().setLengthPrefixedEncoding(true);
+		kryo.setReferences(false);
+		kryo.register(ClassWithStringField.class, serializer);
+
+		roundTrip(18, new ClassWithStringField("Hacker"));
+
+		// Incompatible field data is skipped using the length.
+		final Kryo otherKryo = new Kryo();
+		CompatibleFieldSerializer<ClassWithLongField> otherSerializer = new CompatibleFieldSerializer<>(otherKryo,
+			ClassWithLongField.class);
+		otherSerializer.getCompatibleFieldSerializerConfig().setLengthPrefixedEncoding(true);
+		otherKryo.setReferences(false);
+		otherKryo.register(ClassWithLongField.class, otherSerializer);
+
+		final ClassWithLongField o = (ClassWithLongField)otherKryo.readClassAndObject(input);
+		assertNull(o.value);
+		assertEquals(input.limit(), input.position());
+	}
+
 	@Test
 	void testChangePrimitiveAndWrapperFieldTypes () {
 		testChangePrimitiveAndWrapperFieldTypes(22, true);
@@ -490,6 +514,11 @@ class CompatibleFieldSerializerTest extends KryoTestCase {
 
 		assertEquals(o1, kryo.readClassAndObject(new Input(output1.getBuffer())));
 		assertEquals(o2, kryo.readClassAndObject(new Input(output2.getBuffer())));
+
+		// The value class is written per object without changing the shared field state.
+		CachedField cachedField = serializer.getField("value");
+		assertNull(cachedField.getValueClass());
+		assertTrue(cachedField.getCanBeNull());
 	}
 
 	// https://github.com/EsotericSoftware/kryo/issues/821
@@ -513,6 +542,250 @@ class CompatibleFieldSerializerTest extends KryoTestCase {
 		roundTrip(9, new ClassWithGenericField<>(1));
 	}
 
+	@Test
+	void testSchemaFingerprints () {
+		Kryo writer = newFingerprintKryo(false);
+		Kryo reader = newFingerprintKryo(false);
+
+		TestClass object1 = new TestClass();
+		object1.child = new TestClass();
+		object1.other = new AnotherClass();
+		object1.other.value = "meow";
+
+		// The field names are only written for the first graph.
+		Output output = new Output(1024);
+		writer.writeClassAndObject(output, object1);
+		byte[] first = output.toBytes();
+		output.reset();
+		writer.writeClassAndObject(output, object1);
+		byte[] second = output.toBytes();
+		assertTrue(second.length < first.length);
+
+		assertEquals(object1, reader.readClassAndObject(new Input(first)));
+		assertEquals(object1, reader.readClassAndObject(new Input(second)));
+
+		// A reader that has not seen the field names can use its own fields if the fingerprint matches.
+		assertEquals(object1, newFingerprintKryo(false).readClassAndObject(new Input(second)));
+
+		// Otherwise the field names must have been read.
+		Kryo removed = newFingerprintKryo(true);
+		assertThrows(KryoException.class, () -> removed.readClassAndObject(new Input(second)));
+		removed.readClassAndObject(new Input(first));
+		TestClass object2 = (TestClass)removed.readClassAndObject(new Input(second));
+		assertEquals("something", object2.text);
+		assertEquals(object1.child, object2.child);
+		assertEquals(object1.other, object2.other);
+
+		// The same Kryo instance can write and read.
+		output.reset();
+		removed.writeClassAndObject(output, object1);
+		assertEquals(object1, removed.readClassAndObject(new Input(output.toBytes())));
+	}
+
+	@Test
+	void testResetSchemaSessions () {
+		Kryo writer = newFingerprintKryo(false);
+		TestClass object1 = new TestClass();
+		object1.other = new AnotherClass();
+		Output output = new Output(1024);
+		writer.writeClassAndObject(output, object1);
+		int length = output.position();
+
+		// A new session writes the field names again, so a reader with different fields can read it.
+		Kryo reader = newFingerprintKryo(true);
+		reader.readClassAndObject(new Input(output.toBytes()));
+		CompatibleFieldSerializer.resetSchemaSessions(writer);
+		CompatibleFieldSerializer.resetSchemaSessions(reader);
+		output.reset();
+		writer.writeClassAndObject(output, object1);
+		assertEquals(length, output.position());
+		TestClass object2 = (TestClass)reader.readClassAndObject(new Input(output.toBytes()));
+		assertEquals(object1.other, object2.other);
+
+		// Without a reset the field names are not written.
+		output.reset();
+		writer.writeClassAndObject(output, object1);
+		int sessionLength = output.position();
+		assertTrue(sessionLength < length);
+
+		// A single serializer's session can be reset, then only its field names are written.
+		((CompatibleFieldSerializer)writer.getSerializer(TestClass.class)).resetSchemaSession(writer);
+		output.reset();
+		writer.writeClassAndObject(output, object1);
+		assertTrue(output.position() > sessionLength);
+		assertTrue(output.position() < length);
+	}
+
+	@Test
+	void testReadPlans () {
+		Kryo writer = newFingerprintKryo(true);
+		((CompatibleFieldSerializer)writer.getSerializer(TestClass.class)).getCompatibleFieldSerializerConfig()
+			.setSchemaFingerprints(false);
+		TestClass object1 = new TestClass();
+		object1.text = "hello";
+		object1.other = new AnotherClass();
+		Output output = new Output(1024);
+		writer.writeClassAndObject(output, object1);
+		byte[] bytes = output.toBytes();
+
+		Kryo reader = newFingerprintKryo(false);
+		CompatibleFieldSerializer serializer = (CompatibleFieldSerializer)reader.getSerializer(TestClass.class);
+		serializer.getCompatibleFieldSerializerConfig().setSchemaFingerprints(false);
+		for (int i = 0; i < 3; i++) {
+			TestClass object2 = (TestClass)reader.readClassAndObject(new Input(bytes));
+			assertEquals("something", object2.text);
+			assertEquals(object1.other, object2.other);
+		}
+
+		// Plans are rebuilt when the fields change.
+		serializer.removeField("other");
+		TestClass object2 = (TestClass)reader.readClassAndObject(new Input(bytes));
+		assertNull(object2.other);
+		assertEquals(object1.child, object2.child);
+	}
+
+	@Test
+	void testAdaptiveEncoding () {
+		for (boolean fingerprints : new boolean[] {false, true}) {
+			Kryo writer = newAdaptiveKryo(fingerprints);
+			Kryo reader = newAdaptiveKryo(fingerprints);
+
+			TestClass[] objects = new TestClass[8];
+			for (int i = 0; i < objects.length; i++) {
+				objects[i] = new TestClass();
+				objects[i].moo = i; // Small values, variable length.
+				objects[i].moo2 = Long.MIN_VALUE + i; // Large values, fixed length.
+			}
+			Output output = new Output(1024);
+			writer.writeClassAndObject(output, objects);
+			int untrained = output.position();
+
+			// The encodings are chosen by training. The zzz field always has the same value, so it isn't written.
+			CompatibleFieldSerializer serializer = (CompatibleFieldSerializer)writer.getSerializer(TestClass.class);
+			for (TestClass object : objects)
+				serializer.train(object);
+			serializer.selectEncodings();
+			output.reset();
+			writer.writeClassAndObject(output, objects);
+			assertTrue(output.position() < untrained);
+			assertArrayEquals(objects, (Object[])reader.readClassAndObject(new Input(output.toBytes())));
+			assertArrayEquals(objects, (Object[])reader.readClassAndObject(new Input(output.toBytes())));
+
+			// A value other than the constant is written after the flags.
+			objects[0].zzz = 0;
+			objects[1].zzz = Integer.MIN_VALUE;
+			output.reset();
+			writer.writeClassAndObject(output, objects);
+			assertArrayEquals(objects, (Object[])reader.readClassAndObject(new Input(output.toBytes())));
+
+			// A value for a constant field outside the projection is skipped.
+			output.reset();
+			writer.writeObject(output, objects[0]);
+			writer.writeObject(output, objects[1]);
+			Input input = new Input(output.toBytes());
+			TestClass object = reader.readObject(input, TestClass.class, Projection.of("moo"));
+			assertEquals(objects[0].moo, object.moo);
+			assertEquals(123, object.zzz);
+			assertEquals(objects[1], reader.readObject(input, TestClass.class));
+		}
+
+		// Constant fields are only written by the serializer, as flags.
+		CachedField constant = new CompatibleFieldSerializer.ConstantField(null, "zzz", 123);
+		assertThrows(KryoException.class, () -> constant.write(new Output(8), new TestClass()));
+	}
+
+	@Test
+	void testProjection () {
+		TestClass object1 = new TestClass();
+		object1.text = "hello";
+		object1.moo = 5;
+		object1.zzz = 7;
+		object1.child = new TestClass();
+		object1.other = new AnotherClass("meow");
+		Projection projection = Projection.of("moo", "other");
+
+		// Fields outside the projection are skipped even if unknown fields can't be, eg without the class of the field data.
+		for (int i = 0; i < 5; i++) {
+			CompatibleFieldSerializer serializer = new CompatibleFieldSerializer(kryo, TestClass.class);
+			serializer.getCompatibleFieldSerializerConfig().setChunkedEncoding(i == 1);
+			serializer.getCompatibleFieldSerializerConfig().setLengthPrefixedEncoding(i == 2 || i == 3);
+			serializer.getCompatibleFieldSerializerConfig().setSkipUnknownFieldData(i == 3);
+			serializer.getCompatibleFieldSerializerConfig().setReadUnknownFieldData(i != 4);
+			kryo.register(TestClass.class, serializer);
+			kryo.register(AnotherClass.class);
+
+			Output output = new Output(1024);
+			kryo.writeObject(output, object1);
+			kryo.writeObject(output, object1);
+			Input input = new Input(output.toBytes());
+			TestClass object2 = kryo.readObject(input, TestClass.class, projection);
+			assertEquals(5, object2.moo);
+			assertEquals(object1.other, object2.other);
+			assertEquals("something", object2.text);
+			assertEquals(123, object2.zzz);
+			assertNull(object2.child);
+			// The next object is read in full.
+			assertEquals(object1, kryo.readObject(input, TestClass.class));
+		}
+	}
+
+	@Test
+	void testRemovedFieldWithNestedSchema () {
+		TestClass object1 = new TestClass();
+		object1.child = new TestClass();
+		object1.child.other = new AnotherClass("first");
+		object1.other = new AnotherClass("second");
+
+		for (int i = 0; i < 4; i++) {
+			CompatibleFieldSerializerFactory factory = new CompatibleFieldSerializerFactory();
+			factory.getConfig().setChunkedEncoding(i % 2 == 0);
+			factory.getConfig().setLengthPrefixedEncoding(i % 2 == 1);
+			factory.getConfig().setSchemaFingerprints(i >= 2);
+			Kryo writer = new Kryo(), reader = new Kryo();
+			for (Kryo kryo : new Kryo[] {writer, reader}) {
+				kryo.setDefaultSerializer(factory);
+				kryo.register(TestClass.class);
+				kryo.register(AnotherClass.class);
+			}
+			// The first AnotherClass, which has its schema, is in the removed field.
+			((CompatibleFieldSerializer)reader.getSerializer(TestClass.class)).removeField("child");
+
+			Output output = new Output(1024);
+			writer.writeObject(output, object1);
+			TestClass object2 = reader.readObject(new Input(output.toBytes()), TestClass.class);
+			assertNull(object2.child);
+			assertEquals(object1.other, object2.other);
+		}
+	}
+
+	private Kryo newAdaptiveKryo (boolean fingerprints) {
+		Kryo kryo = new Kryo();
+		CompatibleFieldSerializer serializer = new CompatibleFieldSerializer(kryo, TestClass.class);
+		serializer.getCompatibleFieldSerializerConfig().setAdaptiveEncoding(true);
+		serializer.getCompatibleFieldSerializerConfig().setSchemaFingerprints(fingerprints);
+		kryo.register(TestClass.class, serializer);
+		kryo.register(TestClass[].class);
+		kryo.register(AnotherClass.class);
+		return kryo;
+	}
+
+	private Kryo newFingerprintKryo (boolean removeText) {
+		Kryo kryo = new Kryo();
+		kryo.setRegistrationRequired(false);
+		CompatibleFieldSerializerFactory factory = new CompatibleFieldSerializerFactory() {
+			public CompatibleFieldSerializer newSerializer (Kryo kryo, Class type) {
+				CompatibleFieldSerializer serializer = super.newSerializer(kryo, type);
+				serializer.getCompatibleFieldSerializerConfig().setSchemaFingerprints(true);
+				return serializer;
+			}
+		};
+		kryo.register(AnotherClass.class, factory.newSerializer(kryo, AnotherClass.class));
+		CompatibleFieldSerializer serializer = factory.newSerializer(kryo, TestClass.class);
+		if (removeText) serializer.removeField("text");
+		kryo.register(TestClass.class, serializer);
+		return kryo;
+	}
+
 	public static class TestClass {
 		public String text = "something";
 		public int moo = 120;
@@ -35,9 +35,12 @@ import com.esotericsoftware.kryo.serializers.DefaultArraySerializers.IntArraySer
 import com.esotericsoftware.kryo.serializers.DefaultArraySerializers.LongArraySerializer;
 import com.esotericsoftware.kryo.serializers.DefaultSerializers.StringSerializer;
 import com.esotericsoftware.kryo.serializers.FieldSerializer.Bind;
+import com.esotericsoftware.kryo.serializers.FieldSerializer.CachedField;
+import com.esotericsoftware.kryo.serializers.FieldSerializer.FieldSerializerConfig;
 import com.esotericsoftware.kryo.serializers.FieldSerializer.NotNull;
 import com.esotericsoftware.kryo.serializers.FieldSerializer.Optional;
 import com.esotericsoftware.kryo.serializers.MapSerializer.BindMap;
+import com.esotericsoftware.kryo.util.Generics.GenericType;
 import com.esotericsoftware.kryo.util.Util;
 
 import java.io.ByteArrayOutputStream;
@@ -50,6 +53,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.junit.jupiter.api.Test;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 
@@ -96,6 +100,80 @@ class FieldSerializerTest extends KryoTestCase {
 		roundTrip(78, test);
 	}
 
+	@Test
+	void testPackedFlags () {
+		FieldSerializerConfig config = new FieldSerializerConfig();
+		config.setPackedFlags(true);
+		kryo.register(DefaultTypes.class, new FieldSerializer(kryo, DefaultTypes.class, config));
+		kryo.register(byte[].class);
+		kryo.register(HasStringField.class);
+		kryo.register(HasDefaults.class, new FieldSerializer(kryo, HasDefaults.class, config));
+
+		// Null fields and boolean values are written as bits.
+		DefaultTypes test = new DefaultTypes();
+		test.booleanField = true;
+		test.intField = 123456;
+		roundTrip(24, test);
+
+		test.BooleanField = false;
+		test.IntegerField = -123456;
+		test.StringField = "stringvalue";
+		test.hasStringField = new HasStringField();
+		test.child = new DefaultTypes();
+		roundTrip(63, test);
+
+		// Values set by the constructor are replaced by null and false.
+		HasDefaults defaults = new HasDefaults();
+		defaults.flag = false;
+		defaults.value = null;
+		HasDefaults defaults2 = roundTrip(6, defaults);
+		assertFalse(defaults2.flag);
+		assertNull(defaults2.value);
+
+		// A bitmap is written for each group of 64 flags.
+		kryo.register(ManyFlags.class, new FieldSerializer(kryo, ManyFlags.class, config));
+		ManyFlags flags = new ManyFlags();
+		flags.b0 = true;
+		flags.b63 = true;
+		flags.b69 = true;
+		flags.text = "text";
+		roundTrip(15, flags);
+	}
+
+	@Test
+	void testPackedFlagsWithReflectField () {
+		FieldSerializerConfig config = new FieldSerializerConfig();
+		config.setPackedFlags(true);
+		FieldSerializer serializer = new FieldSerializer(kryo, HasDefaults.class, config);
+		kryo.register(HasDefaults.class, serializer);
+		FieldSerializer reflectSerializer = new FieldSerializer(kryo, HasDefaults.class, config);
+		// Use reflection for the String field, as when Unsafe, ReflectASM, and VarHandles are not available.
+		CachedField[] fields = reflectSerializer.getFields();
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].field.getType() != String.class) continue;
+			ReflectField field = new ReflectField(fields[i].field, reflectSerializer,
+				new GenericType(HasDefaults.class, HasDefaults.class, String.class));
+			field.name = fields[i].name;
+			field.canBeNull = fields[i].canBeNull;
+			field.valueClass = String.class;
+			fields[i] = field;
+		}
+
+		HasDefaults defaults = new HasDefaults();
+		defaults.text = "hello";
+		defaults.value = 7;
+		for (String text : new String[] {"hello", null}) {
+			defaults.text = text;
+			Output output = new Output(1024);
+			kryo.writeObject(output, defaults, serializer);
+			assertEquals(defaults, kryo.readObject(new Input(output.toBytes()), HasDefaults.class, reflectSerializer));
+
+			output.reset();
+			kryo.writeObject(output, defaults, reflectSerializer);
+			assertEquals(defaults, kryo.readObject(new Input(output.toBytes()), HasDefaults.class, serializer));
+		}
+	}
+
 	@Test
 	void testFieldRemoval () {
 		kryo.register(DefaultTypes.class);
@@ -741,6 +819,33 @@ class FieldSerializerTest extends KryoTestCase {
 		fail("Exception was expected");
 	}
 
+	public static class HasDefaults {
+		public boolean flag = true;
+		public Integer value = 5;
+		public String text = "text";
+
+		public boolean equals (Object obj) {
+			if (this == obj) return true;
+			if (obj == null || getClass() != obj.getClass()) return false;
+			HasDefaults other = (HasDefaults)obj;
+			return flag == other.flag && Objects.equals(value, other.value) && Objects.equals(text, other.text);
+		}
+	}
+
+	public static class ManyFlags {
+		public boolean b0, b1, b2, b3, b4, b5, b6, b7, b8, b9, b10, b11, b12, b13,
+			b14, b15, b16, b17, b18, b19, b20, b21, b22, b23, b24, b25, b26, b27,
+			b28, b29, b30, b31, b32, b33, b34, b35, b36, b37, b38, b39, b40, b41,
+			b42, b43, b44, b45, b46, b47, b48, b49, b50, b51, b52, b53, b54, b55,
+			b56, b57, b58, b59, b60, b61, b62, b63, b64, b65, b66, b67, b68, b69;
+		public String text;
+		public int value;
+
+		public boolean equals (Object obj) {
+			return EqualsBuilder.reflectionEquals(this, obj);
+		}
+	}
+
 	public static class DefaultTypes {
 		// Primitives.
 		public boolean booleanField;
@@ -0,0 +1,177 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.serializers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoTestCase;
+import com.esotericsoftware.kryo.SerializerFactory.GeneratedFieldSerializerFactory;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+class GeneratedFieldSerializerTest extends KryoTestCase {
+	{
+		supportsCopy = true;
+	}
+
+	@Test
+	void testGeneratedMatchesFieldSerializer () {
+		kryo.setDefaultSerializer(new GeneratedFieldSerializerFactory());
+		kryo.register(Wide.class);
+		kryo.register(ArrayList.class);
+		kryo.register(int[].class);
+
+		Wide wide = Wide.create();
+		roundTrip(67, wide);
+
+		GeneratedFieldSerializer serializer = (GeneratedFieldSerializer)kryo.getSerializer(Wide.class);
+		if (hiddenClasses()) assertNotNull(serializer.accessor());
+
+		Kryo fieldKryo = new Kryo();
+		fieldKryo.register(Wide.class);
+		fieldKryo.register(ArrayList.class);
+		fieldKryo.register(int[].class);
+		assertArrayEquals(write(fieldKryo, wide), write(kryo, wide));
+	}
+
+	@Test
+	void testFixedEncodingAndRemovedField () {
+		kryo.register(ArrayList.class);
+		kryo.register(int[].class);
+		GeneratedFieldSerializer serializer = new GeneratedFieldSerializer(kryo, Wide.class);
+		serializer.getField("intField").setVariableLengthEncoding(false);
+		serializer.removeField("longField");
+		kryo.register(Wide.class, serializer);
+
+		Wide wide = Wide.create();
+		wide.longField = 0;
+		roundTrip(60, wide);
+	}
+
+	@Test
+	void testSharedAccessors () {
+		if (!hiddenClasses()) return;
+		GeneratedFieldSerializer serializer1 = new GeneratedFieldSerializer(kryo, Wide.class);
+		GeneratedFieldSerializer serializer2 = new GeneratedFieldSerializer(new Kryo(), Wide.class);
+		assertSame(serializer1.accessor(), serializer2.accessor());
+
+		// Different field settings need a different class.
+		GeneratedFieldSerializer serializer3 = new GeneratedFieldSerializer(kryo, Wide.class);
+		serializer3.getField("intField").setVariableLengthEncoding(false);
+		assertNotSame(serializer1.accessor().getClass(), serializer3.accessor().getClass());
+		GeneratedFieldSerializer serializer4 = new GeneratedFieldSerializer(new Kryo(), Wide.class);
+		serializer4.getField("intField").setVariableLengthEncoding(false);
+		assertSame(serializer3.accessor(), serializer4.accessor());
+	}
+
+	private byte[] write (Kryo kryo, Object object) {
+		Output output = new Output(1024, -1);
+		kryo.writeObject(output, object);
+		return output.toBytes();
+	}
+
+	static private boolean hiddenClasses () {
+		try {
+			Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+			return true;
+		} catch (ClassNotFoundException ex) {
+			return false;
+		}
+	}
+
+	static public class Base {
+		private int privateBase;
+		protected String protectedBase;
+		long packageBase;
+
+		public boolean equals (Object obj) {
+			if (!(obj instanceof Base)) return false;
+			Base other = (Base)obj;
+			return privateBase == other.privateBase && Objects.equals(protectedBase, other.protectedBase)
+				&& packageBase == other.packageBase;
+		}
+	}
+
+	static public class Wide extends Base {
+		private boolean booleanField;
+		private byte byteField;
+		private char charField;
+		private short shortField;
+		private int intField;
+		private long longField;
+		private float floatField;
+		private double doubleField;
+		private String stringField, nullString;
+		private final int finalField;
+		private Integer boxed;
+		private int[] ints;
+		private ArrayList<String> list;
+		private Object any;
+		private transient int skipped;
+
+		public Wide () {
+			finalField = 0;
+		}
+
+		Wide (int finalField) {
+			this.finalField = finalField;
+		}
+
+		static Wide create () {
+			Wide wide = new Wide(17);
+			wide.booleanField = true;
+			wide.byteField = -5;
+			wide.charField = 'q';
+			wide.shortField = 1234;
+			wide.intField = -98765;
+			wide.longField = 1L << 50;
+			wide.floatField = 1.25f;
+			wide.doubleField = -3.5;
+			wide.stringField = "string";
+			wide.boxed = 99;
+			wide.ints = new int[] {3, 2, 1};
+			wide.list = new ArrayList(Arrays.asList("a", "b"));
+			wide.any = "any";
+			wide.skipped = 4;
+			((Base)wide).privateBase = 8;
+			wide.protectedBase = "protected";
+			wide.packageBase = 123;
+			return wide;
+		}
+
+		public boolean equals (Object obj) {
+			if (!(obj instanceof Wide) || !super.equals(obj)) return false;
+			Wide other = (Wide)obj;
+			return booleanField == other.booleanField && byteField == other.byteField && charField == other.charField
+				&& shortField == other.shortField && intField == other.intField && longField == other.longField
+				&& floatField == other.floatField && doubleField == other.doubleField && finalField == other.finalField
+				&& Objects.equals(stringField, other.stringField) && Objects.equals(nullString, other.nullString)
+				&& Objects.equals(boxed, other.boxed) && Arrays.equals(ints, other.ints) && Objects.equals(list, other.list)
+				&& Objects.equals(any, other.any);
+		}
+	}
+}
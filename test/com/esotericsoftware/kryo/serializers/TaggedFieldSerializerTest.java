@@ -22,11 +22,14 @@ package com.esotericsoftware.kryo.serializers;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.KryoTestCase;
+import com.esotericsoftware.kryo.Projection;
 import com.esotericsoftware.kryo.SerializerFactory.TaggedFieldSerializerFactory;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
+import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.TaggedFieldSerializerConfig;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -79,6 +82,21 @@ class TaggedFieldSerializerTest extends KryoTestCase {
 	 * unaffected. */
 	@Test
 	void testForwardCompatibility () {
+		testForwardCompatibility(false, false);
+	}
+
+	@Test
+	void testForwardCompatibilityWithLengthPrefixedEncoding () {
+		testForwardCompatibility(true, false);
+	}
+
+	@Test
+	void testForwardCompatibilityWithPackedTags () {
+		testForwardCompatibility(false, true);
+		testForwardCompatibility(true, true);
+	}
+
+	private void testForwardCompatibility (boolean lengthPrefixed, boolean packedTags) {
 		FutureClass futureObject = new FutureClass();
 		futureObject.value = 3;
 		futureObject.futureString = "future";
@@ -97,16 +115,16 @@ class TaggedFieldSerializerTest extends KryoTestCase {
 		futureArray[1] = new TestClass();
 
 		TaggedFieldSerializerFactory factory = new TaggedFieldSerializerFactory();
-		factory.getConfig().setChunkedEncoding(true);
+		setSkippable(factory.getConfig(), lengthPrefixed, packedTags);
 		kryo.setDefaultSerializer(factory);
 		kryo.register(TestClass.class);
 		kryo.register(Object[].class);
 		TaggedFieldSerializer<FutureClass> futureSerializer = new TaggedFieldSerializer(kryo, FutureClass.class);
-		futureSerializer.getTaggedFieldSerializerConfig().setChunkedEncoding(true);
+		setSkippable(futureSerializer.getTaggedFieldSerializerConfig(), lengthPrefixed, packedTags);
 		futureSerializer.updateFields();
 		kryo.register(FutureClass.class, futureSerializer);
 		TaggedFieldSerializer<FutureClass2> futureSerializer2 = new TaggedFieldSerializer(kryo, FutureClass2.class);
-		futureSerializer2.getTaggedFieldSerializerConfig().setChunkedEncoding(true);
+		setSkippable(futureSerializer2.getTaggedFieldSerializerConfig(), lengthPrefixed, packedTags);
 		futureSerializer2.updateFields();
 		kryo.register(FutureClass2.class, futureSerializer2);
 
@@ -117,12 +135,12 @@ class TaggedFieldSerializerTest extends KryoTestCase {
 		byte[] futureArrayData = outStream.toByteArray();
 
 		TaggedFieldSerializer<FutureClass> presentSerializer = new TaggedFieldSerializer(kryo, FutureClass.class);
-		presentSerializer.getTaggedFieldSerializerConfig().setChunkedEncoding(true);
+		setSkippable(presentSerializer.getTaggedFieldSerializerConfig(), lengthPrefixed, packedTags);
 		presentSerializer.updateFields();
 		presentSerializer.removeField("futureString"); // simulate past version of application
 		kryo.register(FutureClass.class, presentSerializer);
 		TaggedFieldSerializer<FutureClass2> presentSerializer2 = new TaggedFieldSerializer(kryo, FutureClass2.class);
-		presentSerializer2.getTaggedFieldSerializerConfig().setChunkedEncoding(true);
+		setSkippable(presentSerializer2.getTaggedFieldSerializerConfig(), lengthPrefixed, packedTags);
 		presentSerializer2.updateFields();
 		presentSerializer2.removeField("zzz"); // simulate past version of application
 		presentSerializer2.removeField("fc2"); // simulate past version of application
@@ -137,6 +155,85 @@ class TaggedFieldSerializerTest extends KryoTestCase {
 		assertEquals(futureArray[1], presentArray[1]);
 	}
 
+	private void setSkippable (TaggedFieldSerializerConfig config, boolean lengthPrefixed, boolean packedTags) {
+		config.setChunkedEncoding(!lengthPrefixed);
+		config.setLengthPrefixedEncoding(lengthPrefixed);
+		config.setPackedTags(packedTags);
+	}
+
+	@Test
+	void testProjection () {
+		TestClass object1 = new TestClass();
+		object1.text = "hello";
+		object1.moo = 5;
+		object1.child = new TestClass();
+		object1.other = new AnotherClass();
+		object1.other.value = "meow";
+		Projection projection = Projection.of("moo", "child");
+
+		// The last configuration is the default, where unknown tags can't be skipped but fields outside the projection can.
+		for (int i = 0; i < 3; i++) {
+			TaggedFieldSerializerFactory factory = new TaggedFieldSerializerFactory();
+			if (i < 2) {
+				boolean packedTags = i == 1;
+				setSkippable(factory.getConfig(), packedTags, packedTags);
+				factory.getConfig().setSkipUnknownTagData(packedTags);
+			}
+			kryo.setDefaultSerializer(factory);
+			kryo.register(TestClass.class, factory.newSerializer(kryo, TestClass.class));
+			kryo.register(AnotherClass.class, factory.newSerializer(kryo, AnotherClass.class));
+
+			Output output = new Output(1024);
+			kryo.writeObject(output, object1);
+			kryo.writeObject(output, object1);
+			Input input = new Input(output.toBytes());
+			TestClass object2 = kryo.readObject(input, TestClass.class, projection);
+			assertEquals(5, object2.moo);
+			assertEquals(object1.child, object2.child);
+			assertEquals("something", object2.text);
+			assertNull(object2.other);
+			// The next object is read in full.
+			assertEquals(object1, kryo.readObject(input, TestClass.class));
+		}
+
+		// Serializers that don't support projection.
+		kryo.register(TestClass.class, new FieldSerializer(kryo, TestClass.class));
+		Output output = new Output(1024);
+		kryo.writeObject(output, object1);
+		assertThrows(KryoException.class, () -> kryo.readObject(new Input(output.toBytes()), TestClass.class, projection));
+	}
+
+	@Test
+	void testPackedTags () {
+		TestClass object1 = new TestClass();
+		object1.moo = 2;
+		object1.child = new TestClass();
+		object1.child.moo = 5;
+		object1.other = new AnotherClass();
+		object1.other.value = "meow";
+		object1.ignored = 32;
+		TaggedFieldSerializerFactory factory = new TaggedFieldSerializerFactory();
+		factory.getConfig().setPackedTags(true);
+		kryo.setDefaultSerializer(factory);
+		kryo.register(TestClass.class);
+		kryo.register(AnotherClass.class);
+		kryo.register(SparseClass.class);
+		TestClass object2 = roundTrip(49, object1);
+		assertEquals(0, object2.ignored);
+
+		// Sparse tags are written before each field.
+		SparseClass sparse = new SparseClass();
+		sparse.a = 1;
+		sparse.b = "b";
+		sparse.c = 3;
+		roundTrip(12, sparse);
+
+		// A gap in the tags is left unset in the bitmap.
+		TaggedFieldSerializer serializer = (TaggedFieldSerializer)kryo.getSerializer(TestClass.class);
+		serializer.removeField("moo2");
+		roundTrip(41, object1);
+	}
+
 	/** Attempts to register a class with a field tagged with a value already used in its superclass. Should receive
 	 * IllegalArgumentException. */
 	@Test
@@ -224,6 +321,19 @@ class TaggedFieldSerializerTest extends KryoTestCase {
 		@Tag(1) String value;
 	}
 
+	public static class SparseClass {
+		@Tag(1) public int a;
+		@Tag(1000) public String b;
+		@Tag(100000) public int c;
+
+		public boolean equals (Object obj) {
+			if (this == obj) return true;
+			if (obj == null || getClass() != obj.getClass()) return false;
+			SparseClass other = (SparseClass)obj;
+			return a == other.a && Objects.equals(b, other.b) && c == other.c;
+		}
+	}
+
 	private static class FutureClass {
 		@Tag(0) public Integer value;
 		@Tag(1) public FutureClass2 futureClass2;
@@ -22,8 +22,13 @@ package com.esotericsoftware.kryo.serializers;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.esotericsoftware.kryo.KryoTestCase;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.VersionFieldSerializer.Since;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
 import org.junit.jupiter.api.Test;
 
 class VersionedFieldSerializerTest extends KryoTestCase {
@@ -53,6 +58,73 @@ class VersionedFieldSerializerTest extends KryoTestCase {
 		assertEquals(object2.other.value, object1.other.value);
 	}
 
+	@Test
+	void testForwardCompatibility () {
+		FutureClass futureObject = newFutureObject();
+		Object[] futureArray = {futureObject, new AnotherClass()};
+		((AnotherClass)futureArray[1]).value = "after";
+
+		register(true, false);
+		output = new Output(new ByteArrayOutputStream());
+		kryo.writeClassAndObject(output, futureArray);
+		output.flush();
+		byte[] futureData = ((ByteArrayOutputStream)output.getOutputStream()).toByteArray();
+
+		register(true, true); // Simulate a past version of the application.
+		Object[] presentArray = (Object[])kryo.readClassAndObject(new Input(new ByteArrayInputStream(futureData)));
+		FutureClass presentObject = (FutureClass)presentArray[0];
+		assertNotEquals(futureObject, presentObject);
+		assertTrue(presentObject.pastEquals(futureObject));
+		assertEquals("after", ((AnotherClass)presentArray[1]).value);
+	}
+
+	@Test
+	void testBackwardCompatibility () {
+		for (boolean forwardCompatible : new boolean[] {false, true}) {
+			FutureClass pastObject = newFutureObject();
+			register(forwardCompatible, true);
+			output = new Output(1024);
+			kryo.writeClassAndObject(output, pastObject);
+
+			register(forwardCompatible, false);
+			FutureClass futureObject = (FutureClass)kryo.readClassAndObject(new Input(output.toBytes()));
+			assertTrue(futureObject.pastEquals(pastObject));
+			assertEquals("unchanged", futureObject.futureString);
+			assertNull(futureObject.futureClass2.fc2);
+		}
+	}
+
+	private void register (boolean forwardCompatible, boolean past) {
+		VersionFieldSerializer serializer = new VersionFieldSerializer(kryo, FutureClass.class);
+		serializer.getVersionFieldSerializerConfig().setForwardCompatible(forwardCompatible);
+		if (past) serializer.removeField("futureString");
+		kryo.register(FutureClass.class, serializer);
+		VersionFieldSerializer serializer2 = new VersionFieldSerializer(kryo, FutureClass2.class);
+		serializer2.getVersionFieldSerializerConfig().setForwardCompatible(forwardCompatible);
+		if (past) {
+			serializer2.removeField("zzz");
+			serializer2.removeField("fc2");
+		}
+		kryo.register(FutureClass2.class, serializer2);
+		kryo.register(AnotherClass.class, new VersionFieldSerializer(kryo, AnotherClass.class));
+		kryo.register(Object[].class);
+	}
+
+	private FutureClass newFutureObject () {
+		FutureClass object = new FutureClass();
+		object.value = 3;
+		object.futureString = "future";
+		object.futureClass2 = new FutureClass2();
+		object.futureClass2.text = "futureText";
+		object.futureClass2.moo = 13;
+		object.futureClass2.moo2 = 9000L;
+		object.futureClass2.zzz = 15;
+		object.futureClass2.fc2 = new FutureClass2();
+		object.futureClass2.fc2.text = "inner futureText";
+		object.futureClass2.fc2.moo = 254;
+		return object;
+	}
+
 	public static class TestClass {
 		@Since(1) public String text = "something";
 		@Since(1) public int moo = 120;
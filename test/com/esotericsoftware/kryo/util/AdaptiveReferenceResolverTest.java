@@ -0,0 +1,86 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.ReferenceResolver;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveReferenceResolverTest {
+	@Test
+	void testSmallAndLargeGraphs () {
+		Kryo kryo = newKryo(new AdaptiveReferenceResolver(8, 64));
+		Kryo mapKryo = newKryo(new MapReferenceResolver());
+		for (int size : new int[] {0, 1, 3, 8, 9, 100, 3, 1000, 2}) {
+			ArrayList<Node> graph = graph(size);
+			byte[] bytes = write(kryo, graph);
+			assertArrayEquals(write(mapKryo, graph), bytes);
+
+			ArrayList<Node> read = (ArrayList)kryo.readClassAndObject(new Input(bytes));
+			assertEquals(graph.size(), read.size());
+			for (int i = 0; i < read.size(); i++) {
+				Node node = read.get(i);
+				assertEquals(i, node.value);
+				assertSame(read.get((i + 1) % read.size()), node.next);
+				assertSame(node, node.self);
+			}
+		}
+	}
+
+	private ArrayList<Node> graph (int size) {
+		ArrayList<Node> graph = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Node node = new Node();
+			node.value = i;
+			node.self = node;
+			graph.add(node);
+		}
+		for (int i = 0; i < size; i++)
+			graph.get(i).next = graph.get((i + 1) % size);
+		return graph;
+	}
+
+	private Kryo newKryo (ReferenceResolver referenceResolver) {
+		Kryo kryo = new Kryo(referenceResolver);
+		kryo.setReferences(true);
+		kryo.register(ArrayList.class);
+		kryo.register(Node.class);
+		return kryo;
+	}
+
+	private byte[] write (Kryo kryo, Object object) {
+		Output output = new Output(1024, -1);
+		kryo.writeClassAndObject(output, object);
+		return output.toBytes();
+	}
+
+	static public class Node {
+		public int value;
+		public Node next, self;
+	}
+}
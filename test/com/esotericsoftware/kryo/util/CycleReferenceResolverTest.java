@@ -0,0 +1,97 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class CycleReferenceResolverTest {
+	@Test
+	void testCycles () {
+		Kryo kryo = newKryo();
+
+		Node root = new Node("root");
+		Node shared = new Node("shared");
+		for (int i = 0; i < 3; i++) {
+			Node child = new Node("child" + i);
+			child.parent = root;
+			child.other = shared;
+			root.children.add(child);
+			Node grandchild = new Node("grandchild" + i);
+			grandchild.parent = child;
+			grandchild.other = root;
+			child.children.add(grandchild);
+		}
+		root.other = root;
+
+		Output output = new Output(1024, -1);
+		kryo.writeObject(output, root);
+		Node read = kryo.readObject(new Input(output.toBytes()), Node.class);
+
+		assertEquals("root", read.name);
+		assertSame(read, read.other);
+		assertEquals(3, read.children.size());
+		for (int i = 0; i < 3; i++) {
+			Node child = read.children.get(i);
+			assertEquals("child" + i, child.name);
+			assertSame(read, child.parent);
+			Node grandchild = child.children.get(0);
+			assertSame(child, grandchild.parent);
+			assertSame(read, grandchild.other);
+			// Shared objects that are not ancestors are not tracked.
+			assertEquals("shared", child.other.name);
+			if (i > 0) assertNotSame(read.children.get(0).other, child.other);
+		}
+
+		// The same instance can be reused for the next graph.
+		output.reset();
+		kryo.writeObject(output, root);
+		assertEquals("root", kryo.readObject(new Input(output.toBytes()), Node.class).name);
+	}
+
+	private Kryo newKryo () {
+		Kryo kryo = new Kryo();
+		kryo.setReferenceResolver(new CycleReferenceResolver());
+		kryo.register(Node.class);
+		kryo.register(ArrayList.class);
+		return kryo;
+	}
+
+	static public class Node {
+		public String name;
+		public Node parent, other;
+		public ArrayList<Node> children = new ArrayList<>();
+
+		public Node () {
+		}
+
+		public Node (String name) {
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EpochIdentityObjectIntMapTest {
+	@Test
+	void testClear () {
+		EpochIdentityObjectIntMap<Object> map = new EpochIdentityObjectIntMap<>();
+		Object a = new Object(), b = new Object();
+		map.put(a, 1);
+		map.put(b, 2);
+		assertEquals(2, map.size);
+		map.clear();
+		assertEquals(0, map.size);
+		assertEquals(-1, map.get(a, -1));
+		assertFalse(map.containsKey(b));
+		assertFalse(map.containsValue(2));
+		assertFalse(map.keys().hasNext());
+
+		map.put(b, 3);
+		assertEquals(3, map.get(b, -1));
+		assertEquals(-1, map.get(a, -1));
+		assertEquals(1, map.size);
+		assertEquals(3, map.getAndIncrement(b, 0, 1));
+		assertEquals(4, map.get(b, -1));
+		assertEquals(0, map.getAndIncrement(a, 0, 5));
+		assertEquals(5, map.get(a, -1));
+		assertEquals(5, map.remove(a, -1));
+		assertEquals(1, map.size);
+		assertSame(b, map.findKey(4));
+	}
+
+	@Test
+	void testClearMaximumCapacity () {
+		EpochIdentityObjectIntMap<Object> map = new EpochIdentityObjectIntMap<>();
+		for (int i = 0; i < 10000; i++)
+			map.put(new Object(), i);
+		map.clear(100);
+		assertEquals(0, map.size);
+		Object key = new Object();
+		map.put(key, 7);
+		assertEquals(7, map.get(key, -1));
+		assertEquals(1, map.size);
+	}
+
+	@Test
+	void testRandom () {
+		Random random = new Random(1234);
+		EpochIdentityObjectIntMap<Object> map = new EpochIdentityObjectIntMap<>(4);
+		Map<Object, Integer> expected = new IdentityHashMap<>();
+		Object[] keys = new Object[500];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = new Object();
+		for (int n = 0; n < 100000; n++) {
+			Object key = keys[random.nextInt(keys.length)];
+			switch (random.nextInt(100)) {
+			case 0:
+				map.clear();
+				expected.clear();
+				break;
+			case 1:
+				map.clear(64);
+				expected.clear();
+				break;
+			case 2:
+			case 3:
+			case 4:
+				assertEquals(expected.containsKey(key) ? expected.remove(key) : -1, map.remove(key, -1));
+				break;
+			default:
+				if (random.nextBoolean()) {
+					map.put(key, n);
+					expected.put(key, n);
+				} else
+					assertEquals(expected.containsKey(key) ? expected.get(key) : -1, map.get(key, -1));
+			}
+			assertEquals(expected.size(), map.size);
+		}
+		int count = 0;
+		for (ObjectIntMap.Entry<Object> entry : map.entries()) {
+			assertEquals(expected.get(entry.key), entry.value);
+			count++;
+		}
+		assertEquals(expected.size(), count);
+	}
+}
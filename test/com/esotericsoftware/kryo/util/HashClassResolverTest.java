@@ -0,0 +1,183 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.ClosureSerializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+
+class HashClassResolverTest {
+	@Test
+	void testHashId () {
+		int id = HashClassResolver.getHashId(Point.class.getName());
+		assertEquals(id, HashClassResolver.getHashId(Point.class.getName()));
+		assertNotEquals(id, HashClassResolver.getHashId(Line.class.getName()));
+		for (String name : new String[] {"", "a", "java.lang.String", "com.example.Some$Inner"}) {
+			id = HashClassResolver.getHashId(name);
+			assertTrue(id >= HashClassResolver.minHashId && id < HashClassResolver.maxHashId);
+		}
+	}
+
+	@Test
+	void testRoundTrip () {
+		Kryo writeKryo = newKryo();
+		Kryo readKryo = newKryo();
+
+		Line line = new Line();
+		line.start = new Point(1, 2);
+		line.end = new Point(3, 4);
+
+		Output output = new Output(1024);
+		writeKryo.writeClassAndObject(output, line);
+		// The reading Kryo finds the classes for the hashed IDs without any names being written.
+		assertEquals(line, readKryo.readClassAndObject(new Input(output.toBytes())));
+		assertEquals(HashClassResolver.getHashId(Line.class.getName()), writeKryo.getRegistration(Line.class).getId());
+		assertSame(Point.class, readKryo.getRegistration(HashClassResolver.getHashId(Point.class.getName())).getType());
+
+		Kryo unregisteredKryo = new Kryo();
+		unregisteredKryo.setRegistrationRequired(false);
+		Output unregisteredOutput = new Output(1024);
+		unregisteredKryo.writeClassAndObject(unregisteredOutput, line);
+		assertTrue(output.position() < unregisteredOutput.position() / 2);
+	}
+
+	@Test
+	void testOtherPackages () {
+		Kryo kryo = newKryo();
+		ArrayList list = new ArrayList();
+		list.add(new Point(5, 6));
+		Output output = new Output(1024);
+		kryo.writeClassAndObject(output, list);
+		assertEquals(list, newKryo().readClassAndObject(new Input(output.toBytes())));
+		assertThrows(IllegalArgumentException.class, () -> kryo.getRegistration(Object[].class));
+	}
+
+	@Test
+	void testSpecialClasses () throws Exception {
+		Kryo kryo = newClosureKryo();
+		HashClassResolver resolver = (HashClassResolver)kryo.getClassResolver();
+
+		// Enum values with a body are registered using the enum.
+		assertNull(resolver.getRegistration(Color.GREEN.getClass()));
+		Output output = new Output(1024);
+		kryo.writeClassAndObject(output, Color.GREEN);
+		assertSame(Color.GREEN, newKryo().readClassAndObject(new Input(output.toBytes())));
+
+		// Closures are registered using ClosureSerializer.Closure.
+		Callable<Integer> closure = (Callable<Integer> & Serializable)() -> 72363;
+		assertNull(resolver.getRegistration(closure.getClass()));
+		output.reset();
+		kryo.writeClassAndObject(output, closure);
+		assertEquals(72363, ((Callable)newClosureKryo().readClassAndObject(new Input(output.toBytes()))).call());
+
+		// Proxies are registered using InvocationHandler.
+		Object proxy = Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Shape.class}, (p, method, args) -> null);
+		assertTrue(resolver.isHashed(proxy.getClass().getName()));
+		assertNull(resolver.getRegistration(proxy.getClass()));
+	}
+
+	@Test
+	void testUnlistedClassLoader () {
+		Kryo kryo = newKryo();
+		URLStreamHandler handler = new URLStreamHandler() {
+			protected URLConnection openConnection (URL url) {
+				throw new UnsupportedOperationException();
+			}
+		};
+		kryo.setClassLoader(new ClassLoader(getClass().getClassLoader()) {
+			public Enumeration<URL> getResources (String name) throws IOException {
+				return Collections.enumeration(Collections.singletonList(new URL(null, "bundle://1/" + name, handler)));
+			}
+		});
+		// Classes can't be listed for the OSGi style URL, so the class for the ID can't be found.
+		int id = HashClassResolver.getHashId(Point.class.getName());
+		KryoException ex = assertThrows(KryoException.class, () -> kryo.getRegistration(id));
+		assertTrue(ex.getMessage().contains("bundle://1/"));
+	}
+
+	private Kryo newKryo () {
+		Kryo kryo = new Kryo(new HashClassResolver("com.esotericsoftware.kryo.util"), new MapReferenceResolver());
+		kryo.register(ArrayList.class, 10);
+		return kryo;
+	}
+
+	private Kryo newClosureKryo () {
+		Kryo kryo = newKryo();
+		kryo.register(Object[].class, 11);
+		kryo.register(Class.class, 12);
+		kryo.register(ClosureSerializer.Closure.class, new ClosureSerializer(), 13);
+		return kryo;
+	}
+
+	interface Shape {
+	}
+
+	enum Color {
+		RED, GREEN {
+		}
+	}
+
+	static public class Point {
+		public int x, y;
+
+		public Point () {
+		}
+
+		public Point (int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		public boolean equals (Object obj) {
+			if (!(obj instanceof Point)) return false;
+			Point other = (Point)obj;
+			return x == other.x && y == other.y;
+		}
+	}
+
+	static public class Line {
+		public Point start, end;
+
+		public boolean equals (Object obj) {
+			if (!(obj instanceof Line)) return false;
+			Line other = (Line)obj;
+			return Objects.equals(start, other.start) && Objects.equals(end, other.end);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ImmutabilityAnalyzerTest {
+	@Test
+	void testAnalysis () {
+		ImmutabilityAnalyzer analyzer = new ImmutabilityAnalyzer();
+		assertTrue(analyzer.isImmutable(int.class));
+		assertTrue(analyzer.isImmutable(Integer.class));
+		assertTrue(analyzer.isImmutable(String.class));
+		assertTrue(analyzer.isImmutable(BigDecimal.class));
+		assertTrue(analyzer.isImmutable(LocalDate.class));
+		assertTrue(analyzer.isImmutable(Color.class));
+		assertTrue(analyzer.isImmutable(Point.class));
+		assertTrue(analyzer.isImmutable(Label.class));
+
+		assertFalse(analyzer.isImmutable(int[].class));
+		assertFalse(analyzer.isImmutable(ArrayList.class));
+		assertFalse(analyzer.isImmutable(Mutable.class));
+		assertFalse(analyzer.isImmutable(HasMutable.class));
+		assertFalse(analyzer.isImmutable(HasInterface.class));
+		assertFalse(analyzer.isImmutable(Linked.class));
+
+		analyzer.setImmutable(Mutable.class, true);
+		assertTrue(analyzer.isImmutable(Mutable.class));
+	}
+
+	@Test
+	void testThreads () throws Exception {
+		// A shared analyzer gives every thread the same results, including for classes being analyzed by another thread.
+		ImmutabilityAnalyzer analyzer = new ImmutabilityAnalyzer();
+		Thread[] threads = new Thread[8];
+		boolean[] failed = new boolean[1];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int ii = 0; ii < 1000; ii++) {
+					if (!analyzer.isImmutable(Label.class) || analyzer.isImmutable(HasMutable.class)
+						|| analyzer.isImmutable(Linked.class)) failed[0] = true;
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertFalse(failed[0]);
+	}
+
+	@Test
+	void testKryo () {
+		Kryo kryo = new Kryo();
+		kryo.setReferences(true);
+		kryo.register(Label.class);
+		kryo.register(Point.class);
+		kryo.register(Color.class);
+		kryo.register(Object[].class);
+		kryo.register(ArrayList.class);
+
+		Label label = new Label("text", new Point(1, 2), Color.red);
+		Object[] array = {label, label};
+		int withReferences = write(kryo, array);
+		ArrayList list = new ArrayList(Arrays.asList(label));
+		assertNotSame(label, kryo.copy(list).get(0));
+
+		kryo = new Kryo();
+		kryo.setReferences(true);
+		kryo.setImmutabilityAnalyzer(new ImmutabilityAnalyzer());
+		kryo.register(Label.class);
+		kryo.register(Point.class);
+		kryo.register(Color.class);
+		kryo.register(Object[].class);
+		kryo.register(ArrayList.class);
+
+		// The label is written twice, but without reference IDs.
+		assertTrue(write(kryo, array) > withReferences);
+		assertSame(label, kryo.copy(label));
+		ArrayList copy = kryo.copy(list);
+		assertNotSame(list, copy);
+		assertSame(label, copy.get(0));
+		assertTrue(kryo.getSerializer(Label.class).isImmutable());
+		assertFalse(kryo.getSerializer(ArrayList.class).isImmutable());
+	}
+
+	private int write (Kryo kryo, Object object) {
+		Output output = new Output(1024);
+		kryo.writeClassAndObject(output, object);
+		return output.position();
+	}
+
+	public enum Color {
+		red, green
+	}
+
+	static public final class Point {
+		public final int x, y;
+
+		public Point () {
+			this(0, 0);
+		}
+
+		public Point (int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	static public class Label {
+		public final String text;
+		public final Point point;
+		public final Color color;
+
+		public Label () {
+			this(null, null, null);
+		}
+
+		public Label (String text, Point point, Color color) {
+			this.text = text;
+			this.point = point;
+			this.color = color;
+		}
+	}
+
+	static public final class Mutable {
+		public int value;
+	}
+
+	static public final class HasMutable {
+		public final Mutable mutable = new Mutable();
+	}
+
+	static public final class HasInterface {
+		public final CharSequence text = "";
+	}
+
+	static public final class Linked {
+		public final Linked next = null;
+	}
+}
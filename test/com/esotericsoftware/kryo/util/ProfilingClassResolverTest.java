@@ -0,0 +1,137 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.ClosureSerializer.Closure;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+
+class ProfilingClassResolverTest {
+	@Test
+	void testRegistrationPlan () throws IOException {
+		ProfilingClassResolver resolver = new ProfilingClassResolver();
+		Kryo kryo = new Kryo(resolver, new MapReferenceResolver());
+		kryo.setRegistrationRequired(false);
+
+		ArrayList list = new ArrayList();
+		for (int i = 0; i < 10; i++)
+			list.add(new Hot());
+		list.add(new Cold());
+		Output output = new Output(1024, -1);
+		kryo.writeClassAndObject(output, list);
+
+		assertEquals(10, resolver.getWriteCount(Hot.class));
+		assertEquals(1, resolver.getWriteCount(Cold.class));
+		RegistrationPlan plan = resolver.getRegistrationPlan();
+		assertEquals(Arrays.asList(Hot.class.getName(), Cold.class.getName(), ArrayList.class.getName()), plan.getClassNames());
+
+		StringWriter writer = new StringWriter();
+		plan.write(writer);
+		plan = RegistrationPlan.read(new StringReader(writer.toString()));
+		assertEquals(3, plan.getClassNames().size());
+
+		Kryo writeKryo = new Kryo(), readKryo = new Kryo();
+		plan.register(writeKryo);
+		plan.register(readKryo);
+		assertTrue(writeKryo.getRegistration(Hot.class).getId() < writeKryo.getRegistration(Cold.class).getId());
+
+		output = new Output(1024, -1);
+		writeKryo.writeClassAndObject(output, list);
+		assertEquals(list, readKryo.readClassAndObject(new Input(output.toBytes())));
+
+		resolver.clearWriteCounts();
+		assertEquals(0, resolver.getWriteCount(Hot.class));
+	}
+
+	@Test
+	void testSpecialClasses () throws Exception {
+		ProfilingClassResolver resolver = new ProfilingClassResolver();
+		Kryo kryo = new Kryo(resolver, new MapReferenceResolver());
+		kryo.setRegistrationRequired(false);
+
+		// Generated classes are counted as the class Kryo registers them with.
+		Callable<Integer> closure = (Callable<Integer> & Serializable)() -> 72363;
+		Object proxy = Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Runnable.class}, (p, method, args) -> null);
+		Output output = new Output(1024, -1);
+		kryo.writeClass(output, closure.getClass());
+		kryo.writeClass(output, proxy.getClass());
+		kryo.writeClass(output, Color.GREEN.getClass());
+		assertEquals(1, resolver.getWriteCount(Closure.class));
+		assertEquals(1, resolver.getWriteCount(InvocationHandler.class));
+		assertEquals(1, resolver.getWriteCount(Color.class));
+		RegistrationPlan plan = resolver.getRegistrationPlan();
+		assertEquals(Arrays.asList(Closure.class.getName(), Color.class.getName(), InvocationHandler.class.getName()),
+			plan.getClassNames());
+
+		Kryo writeKryo = new Kryo(), readKryo = new Kryo();
+		for (Kryo planned : new Kryo[] {writeKryo, readKryo}) {
+			plan.register(planned);
+			planned.register(Object[].class);
+			planned.register(Class.class);
+			planned.register(getClass());
+		}
+		output = new Output(1024, -1);
+		writeKryo.writeClassAndObject(output, closure);
+		writeKryo.writeClassAndObject(output, Color.GREEN);
+		Input input = new Input(output.toBytes());
+		assertEquals(72363, ((Callable)readKryo.readClassAndObject(input)).call());
+		assertSame(Color.GREEN, readKryo.readClassAndObject(input));
+	}
+
+	@Test
+	void testMissingClass () {
+		RegistrationPlan plan = new RegistrationPlan(Arrays.asList("com.example.Missing"));
+		assertThrows(KryoException.class, () -> plan.register(new Kryo()));
+	}
+
+	enum Color {
+		RED, GREEN {
+		}
+	}
+
+	static public class Hot {
+		public boolean equals (Object obj) {
+			return obj instanceof Hot;
+		}
+	}
+
+	static public class Cold {
+		public boolean equals (Object obj) {
+			return obj instanceof Cold;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.ReferenceResolver;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class RelativeReferenceResolverTest {
+	@Test
+	void testRecentReferences () {
+		// Each node is in the list and is also referenced by the next node.
+		ArrayList<Node> list = new ArrayList<>();
+		Node previous = null;
+		for (int i = 0; i < 1000; i++) {
+			Node node = new Node();
+			node.value = i;
+			node.previous = previous;
+			list.add(node);
+			previous = node;
+		}
+
+		Kryo kryo = newKryo(new RelativeReferenceResolver());
+		Output output = new Output(1024, -1);
+		kryo.writeObject(output, list);
+		byte[] bytes = output.toBytes();
+
+		for (ReferenceResolver resolver : new ReferenceResolver[] {new RelativeReferenceResolver(),
+			new RelativeReferenceResolver(new ListReferenceResolver()),
+			new RelativeReferenceResolver(new AdaptiveReferenceResolver())}) {
+			ArrayList<Node> read = newKryo(resolver).readObject(new Input(bytes), ArrayList.class);
+			assertEquals(list.size(), read.size());
+			for (int i = 0; i < read.size(); i++) {
+				Node node = read.get(i);
+				assertEquals(i, node.value);
+				assertSame(i == 0 ? null : read.get(i - 1), node.previous);
+			}
+		}
+
+		output = new Output(1024, -1);
+		newKryo(new MapReferenceResolver()).writeObject(output, list);
+		assertTrue(bytes.length < output.position());
+	}
+
+	private Kryo newKryo (ReferenceResolver resolver) {
+		Kryo kryo = new Kryo(resolver);
+		kryo.register(ArrayList.class);
+		kryo.register(Node.class);
+		return kryo;
+	}
+
+	static public class Node {
+		public int value;
+		public Node previous;
+	}
+}
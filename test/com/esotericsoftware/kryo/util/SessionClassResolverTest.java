@@ -0,0 +1,97 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class SessionClassResolverTest {
+	@Test
+	void testNamesWrittenOncePerSession () {
+		SessionClassResolver writeResolver = new SessionClassResolver();
+		SessionClassResolver readResolver = new SessionClassResolver();
+		Kryo writeKryo = newKryo(writeResolver), readKryo = newKryo(readResolver);
+
+		Message message = new Message();
+		message.list = new ArrayList();
+		message.list.add(new HashMap());
+
+		int first = roundTrip(writeKryo, readKryo, message);
+		int second = roundTrip(writeKryo, readKryo, message);
+		assertTrue(second < first);
+		assertEquals(second, roundTrip(writeKryo, readKryo, message));
+
+		// The package name was already written for ArrayList.
+		int packageSeen = roundTrip(writeKryo, readKryo, new LinkedList());
+		assertTrue(packageSeen < roundTrip(newKryo(new SessionClassResolver()), newKryo(new SessionClassResolver()),
+			new LinkedList()));
+
+		writeResolver.resetSession();
+		readResolver.resetSession();
+		assertEquals(first, roundTrip(writeKryo, readKryo, message));
+	}
+
+	@Test
+	void testSmallerThanDefault () {
+		Message message = new Message();
+		message.list = new ArrayList();
+		message.list.add(new HashMap());
+		message.list.add(new TreeMap());
+		message.list.add(new LinkedList());
+
+		Kryo defaultKryo = new Kryo();
+		defaultKryo.setRegistrationRequired(false);
+		assertTrue(roundTrip(newKryo(new SessionClassResolver()), newKryo(new SessionClassResolver()), message) < roundTrip(
+			defaultKryo, defaultKryo, message));
+	}
+
+	private Kryo newKryo (SessionClassResolver resolver) {
+		Kryo kryo = new Kryo(resolver, new MapReferenceResolver());
+		kryo.setRegistrationRequired(false);
+		return kryo;
+	}
+
+	private int roundTrip (Kryo writeKryo, Kryo readKryo, Object object) {
+		Output output = new Output(1024);
+		writeKryo.writeClassAndObject(output, object);
+		Object read = readKryo.readClassAndObject(new Input(output.toBytes()));
+		assertEquals(object, read);
+		return output.position();
+	}
+
+	static public class Message {
+		public ArrayList list;
+
+		public boolean equals (Object obj) {
+			return obj instanceof Message && list.equals(((Message)obj).list);
+		}
+	}
+}
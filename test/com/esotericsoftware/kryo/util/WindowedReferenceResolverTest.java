@@ -0,0 +1,150 @@
+/* Copyright (c) 2008-2025, Nathan Sweet
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided that the following
+ * conditions are met:
+ * 
+ * - Redistributions of source code must retain the above copyright notice, this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided with the distribution.
+ * - Neither the name of Esoteric Software nor the names of its contributors may be used to endorse or promote products derived
+ * from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING,
+ * BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE. */
+
+
+package com.esotericsoftware.kryo.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import org.junit.jupiter.api.Test;
+
+class WindowedReferenceResolverTest {
+	@Test
+	void testStream () {
+		// Large enough for all objects, later messages contain only references.
+		int[] sizes = stream(64, 30);
+		assertTrue(sizes[sizes.length - 1] < sizes[0] / 2);
+
+		// Objects are evicted and written again, the reader stays in sync.
+		stream(8, 50);
+	}
+
+	private int[] stream (int windowSize, int count) {
+		Kryo writeKryo = newKryo(windowSize), readKryo = newKryo(windowSize);
+		Output output = new Output(1024, -1);
+
+		Value[] values = new Value[10];
+		for (int i = 0; i < values.length; i++)
+			values[i] = new Value("value" + i);
+
+		int[] sizes = new int[count];
+		for (int i = 0; i < count; i++) {
+			Message message = new Message();
+			message.recent = values[i % values.length];
+			message.old = values[(i + 5) % values.length];
+			int start = output.position();
+			writeKryo.writeObject(output, message);
+			sizes[i] = output.position() - start;
+		}
+
+		Input input = new Input(output.toBytes());
+		for (int i = 0; i < count; i++) {
+			Message message = readKryo.readObject(input, Message.class);
+			assertEquals(values[i % values.length].name, message.recent.name);
+			assertEquals(values[(i + 5) % values.length].name, message.old.name);
+		}
+		assertEquals(input.limit(), input.position());
+		return sizes;
+	}
+
+	@Test
+	void testWrapDuringNestedObject () {
+		// The group's serializer references it after reading its values. The values and their names take the other 6 slots, so
+		// the last value takes the group's slot before the group is set.
+		Kryo writeKryo = newKryo(7), readKryo = newKryo(7);
+		Output output = new Output(1024, -1);
+		Group group = new Group();
+		group.values = new Value[] {new Value("a"), new Value("b"), new Value("c"), new Value("d")};
+		writeKryo.writeObject(output, group);
+		Message message = new Message();
+		message.recent = group.values[3];
+		writeKryo.writeObject(output, message);
+
+		Input input = new Input(output.toBytes());
+		assertEquals("d", readKryo.readObject(input, Group.class).values[3].name);
+		Object recent = readKryo.readObject(input, Message.class).recent;
+		assertEquals(Value.class, recent.getClass());
+		assertEquals("d", ((Value)recent).name);
+		assertEquals(input.limit(), input.position());
+	}
+
+	@Test
+	void testEviction () {
+		WindowedReferenceResolver resolver = new WindowedReferenceResolver(2);
+		Object a = new Object(), b = new Object(), c = new Object();
+		assertEquals(0, resolver.addWrittenObject(a));
+		assertEquals(1, resolver.addWrittenObject(b));
+		assertEquals(0, resolver.getWrittenId(a));
+		assertEquals(0, resolver.addWrittenObject(c));
+		assertEquals(-1, resolver.getWrittenId(a));
+		assertEquals(1, resolver.getWrittenId(b));
+		assertEquals(0, resolver.getWrittenId(c));
+		resolver.reset();
+		assertEquals(-1, resolver.getWrittenId(b));
+		assertEquals(0, resolver.addWrittenObject(b));
+	}
+
+	private Kryo newKryo (int windowSize) {
+		Kryo kryo = new Kryo(new WindowedReferenceResolver(windowSize));
+		kryo.setAutoReset(false);
+		kryo.register(Message.class);
+		kryo.register(Value.class);
+		kryo.register(Group.class, new Serializer<Group>() {
+			public void write (Kryo kryo, Output output, Group group) {
+				for (Value value : group.values)
+					kryo.writeObject(output, value);
+			}
+
+			public Group read (Kryo kryo, Input input, Class<? extends Group> type) {
+				Value[] values = new Value[4];
+				for (int i = 0; i < values.length; i++)
+					values[i] = kryo.readObject(input, Value.class);
+				Group group = new Group();
+				group.values = values;
+				kryo.reference(group);
+				return group;
+			}
+		});
+		return kryo;
+	}
+
+	static public class Group {
+		public Value[] values;
+	}
+
+	static public class Message {
+		public Value recent, old;
+	}
+
+	static public class Value {
+		public String name;
+
+		public Value () {
+		}
+
+		public Value (String name) {
+			this.name = name;
+		}
+	}
+}